@@ -6,6 +6,7 @@ dependencies {
     // Only to run the jar
     implementation(kotlin("stdlib"))
 
+    api(projects.modules.binary)
     api(projects.modules.core)
     api(projects.modules.json)
     api(projects.modules.toml)
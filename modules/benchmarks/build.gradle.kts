@@ -0,0 +1,22 @@
+plugins {
+    id("ntconfig-build")
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmhImplementation(projects.modules.core)
+    jmhImplementation(projects.modules.json)
+    jmhImplementation(projects.modules.toml)
+    jmhImplementation(projects.modules.yaml)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    // Allocation rate and GC counts are reported next to every score
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
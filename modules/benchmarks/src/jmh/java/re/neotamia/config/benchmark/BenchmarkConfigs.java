@@ -0,0 +1,186 @@
+package re.neotamia.config.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.annotation.ConfigHeader;
+import re.neotamia.config.annotation.ConfigVersion;
+import re.neotamia.config.migration.core.ConfigMigrationHelpers;
+import re.neotamia.config.migration.step.ConfigMigrationStep;
+import re.neotamia.config.migration.version.MigrationVersion;
+import re.neotamia.nightconfig.core.Config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Configuration classes used by the benchmarks, from a handful of scalars up to
+ * generated documents with thousands of nested sections.
+ */
+public final class BenchmarkConfigs {
+    /**
+     * Number of generated sections in {@link LargeConfig}.
+     */
+    public static final int LARGE_SECTION_COUNT = 5_000;
+
+    /**
+     * Utility class.
+     */
+    private BenchmarkConfigs() {}
+
+    /**
+     * Size classes exercised by every benchmark.
+     */
+    public enum Size {
+        /**
+         * A few scalar values.
+         */
+        SMALL(SmallConfig.class, SmallConfig::new),
+        /**
+         * Nested sections, lists and maps, similar to a typical service config.
+         */
+        MEDIUM(MediumConfig.class, MediumConfig::new),
+        /**
+         * Thousands of generated sections, similar to generated routing tables.
+         */
+        LARGE(LargeConfig.class, LargeConfig::new);
+
+        private final Class<?> type;
+        private final Supplier<?> factory;
+
+        Size(@NotNull Class<?> type, @NotNull Supplier<?> factory) {
+            this.type = type;
+            this.factory = factory;
+        }
+
+        /**
+         * Returns the configuration class for this size.
+         *
+         * @return the configuration class
+         */
+        @SuppressWarnings("unchecked")
+        public <T> @NotNull Class<T> type() {
+            return (Class<T>) type;
+        }
+
+        /**
+         * Creates a populated template instance for this size.
+         *
+         * @return a new template instance
+         */
+        @SuppressWarnings("unchecked")
+        public <T> @NotNull T create() {
+            return (T) factory.get();
+        }
+    }
+
+    /**
+     * Small configuration with a handful of scalar values.
+     */
+    @ConfigHeader("Small benchmark configuration")
+    public static class SmallConfig {
+        @ConfigVersion(defaultVersion = "2")
+        int version = 2;
+        String name = "small";
+        boolean enabled = true;
+        int port = 25565;
+        double ratio = 0.75;
+        String legacyName = "legacy";
+    }
+
+    /**
+     * Medium configuration with nested sections, lists and maps.
+     */
+    @ConfigHeader("Medium benchmark configuration")
+    public static class MediumConfig {
+        @ConfigVersion(defaultVersion = "2")
+        int version = 2;
+        String name = "medium";
+        String legacyName = "legacy";
+        boolean enabled = true;
+        long timeoutMillis = 30_000L;
+        double ratio = 0.5;
+        List<String> tags = List.of("alpha", "beta", "gamma", "delta", "epsilon");
+        List<Integer> ports = List.of(8080, 8081, 8082, 8083);
+        Map<String, String> labels = generateLabels(16);
+        Section database = new Section("database", 1);
+        Section cache = new Section("cache", 2);
+        Section metrics = new Section("metrics", 3);
+        Section security = new Section("security", 4);
+    }
+
+    /**
+     * Large configuration made of generated sections.
+     */
+    @ConfigHeader("Large benchmark configuration")
+    public static class LargeConfig {
+        @ConfigVersion(defaultVersion = "2")
+        int version = 2;
+        String name = "large";
+        String legacyName = "legacy";
+        List<Section> sections = generateSections(LARGE_SECTION_COUNT);
+    }
+
+    /**
+     * Nested section used by the medium and large configurations.
+     */
+    public static class Section {
+        String id = "section";
+        int priority = 0;
+        boolean active = true;
+        double weight = 1.0;
+        String target = "localhost";
+        List<String> aliases = List.of();
+
+        /**
+         * Creates a default section.
+         */
+        public Section() {}
+
+        Section(@NotNull String id, int index) {
+            this.id = id;
+            this.priority = index;
+            this.active = index % 3 != 0;
+            this.weight = index / 7.0;
+            this.target = "host-" + index + ".internal:" + (9000 + index % 1000);
+            this.aliases = List.of(id + "-a", id + "-b");
+        }
+    }
+
+    /**
+     * Migration step used by the migration benchmarks: renames the legacy key written by version 1 files.
+     */
+    public static final class RenameLegacyNameStep implements ConfigMigrationStep {
+        @Override
+        public @NotNull MigrationVersion fromVersion() {
+            return MigrationVersion.of(1);
+        }
+
+        @Override
+        public @NotNull MigrationVersion toVersion() {
+            return MigrationVersion.of(2);
+        }
+
+        @Override
+        public void migrate(@NotNull Config config) {
+            ConfigMigrationHelpers.rename(config, "old-name", "legacy-name");
+        }
+    }
+
+    private static @NotNull List<Section> generateSections(int count) {
+        List<Section> sections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sections.add(new Section("section-" + i, i));
+        }
+        return sections;
+    }
+
+    private static @NotNull Map<String, String> generateLabels(int count) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            labels.put("label-" + i, "value-" + i);
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,189 @@
+package re.neotamia.config.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import re.neotamia.config.NTConfig;
+import re.neotamia.config.backup.BackupManager;
+import re.neotamia.config.format.FormatModules;
+import re.neotamia.config.migration.core.ConfigMigrationHelpers;
+import re.neotamia.config.migration.core.ConfigMigrationManager;
+import re.neotamia.nightconfig.core.file.FileConfig;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the public {@link NTConfig} entry points for every registered format and config size.
+ * <p>
+ * Run with {@code ./gradlew :modules:benchmarks:jmh}; the GC profiler is enabled by the build so
+ * that allocation rates are reported next to every score. The migration benchmarks also report the
+ * bytes read and written by the benchmark thread and the number of file writes, see {@link IoCounters}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NTConfigBenchmark {
+    @Param({"json", "toml", "yaml"})
+    public String format;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public BenchmarkConfigs.Size size;
+
+    private NTConfig ntConfig;
+    private Path directory;
+    private Path currentPath;
+    private Path savePath;
+    private Path legacyPath;
+    private byte[] currentContent;
+    private byte[] legacyContent;
+    private Class<Object> type;
+    private Object template;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ntConfig = new NTConfig();
+        FormatModules.registerAvailable(ntConfig);
+
+        directory = Files.createTempDirectory("ntconfig-bench");
+        ntConfig.setMigrationManager(new ConfigMigrationManager(new BackupManager(directory.resolve("backups"), false)));
+        ntConfig.registerMigrationSteps(size.type(), new BenchmarkConfigs.RenameLegacyNameStep());
+
+        type = size.type();
+        template = size.create();
+        currentPath = directory.resolve("current." + format);
+        savePath = directory.resolve("save." + format);
+        legacyPath = directory.resolve("legacy." + format);
+
+        ntConfig.save(currentPath, template).close();
+        currentContent = Files.readAllBytes(currentPath);
+
+        try (FileConfig legacy = ntConfig.save(legacyPath, template)) {
+            legacy.set("version", 1);
+            ConfigMigrationHelpers.rename(legacy, "legacy-name", "old-name");
+            legacy.save();
+        }
+        legacyContent = Files.readAllBytes(legacyPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Restores the files mutated by the write benchmarks so that every invocation sees the same input.
+     */
+    @State(Scope.Thread)
+    public static class ResetFiles {
+        @Setup(Level.Invocation)
+        public void reset(NTConfigBenchmark benchmark) throws IOException {
+            Files.write(benchmark.currentPath, benchmark.currentContent);
+            Files.write(benchmark.legacyPath, benchmark.legacyContent);
+        }
+    }
+
+    /**
+     * Counts the I/O done by each invocation of the migration benchmarks.
+     * <p>
+     * Byte counts come from the {@code rchar}/{@code wchar} fields of {@code /proc/thread-self/io},
+     * so they include every read and write syscall of the benchmark thread (backups included) and
+     * stay at zero on platforms without it. Counters are totals over the iteration; divide them by
+     * {@code invocations} to get per-call figures.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IoCounters {
+        private static final Path THREAD_IO = Path.of("/proc/thread-self/io");
+
+        public long invocations;
+        public long bytesRead;
+        public long bytesWritten;
+        public long fileWrites;
+
+        private long readBefore;
+        private long writtenBefore;
+
+        @Setup(Level.Invocation)
+        public void start(ResetFiles files) throws IOException {
+            long[] io = readThreadIo();
+            readBefore = io[0];
+            writtenBefore = io[1];
+        }
+
+        @TearDown(Level.Invocation)
+        public void stop() throws IOException {
+            long[] io = readThreadIo();
+            invocations++;
+            bytesRead += io[0] - readBefore;
+            bytesWritten += io[1] - writtenBefore;
+        }
+
+        ConfigMigrationManager.MigrationResult<?> record(ConfigMigrationManager.MigrationResult<?> result) {
+            if (result.wasWritten()) fileWrites++;
+            return result;
+        }
+
+        private static long[] readThreadIo() throws IOException {
+            long[] io = new long[2];
+            if (!Files.isReadable(THREAD_IO)) return io;
+            List<String> lines = Files.readAllLines(THREAD_IO);
+            for (String line : lines) {
+                if (line.startsWith("rchar:")) io[0] = Long.parseLong(line.substring(6).trim());
+                else if (line.startsWith("wchar:")) io[1] = Long.parseLong(line.substring(6).trim());
+            }
+            return io;
+        }
+    }
+
+    @Benchmark
+    public FileConfig save() {
+        FileConfig fileConfig = ntConfig.save(savePath, template);
+        fileConfig.close();
+        return fileConfig;
+    }
+
+    @Benchmark
+    public Object load() {
+        return ntConfig.load(currentPath, type);
+    }
+
+    @Benchmark
+    public Object migrateAndLoadCurrent(IoCounters io) {
+        return io.record(ntConfig.migrateAndLoad(currentPath, type, template));
+    }
+
+    @Benchmark
+    public Object migrateAndLoadLegacy(IoCounters io) {
+        return io.record(ntConfig.migrateAndLoad(legacyPath, type, template));
+    }
+
+    @Benchmark
+    public Object loadAndUpdate(IoCounters io) {
+        return io.record(ntConfig.loadAndUpdate(currentPath, type, template));
+    }
+
+    @Benchmark
+    public Object loadAndUpdateLegacy(IoCounters io) {
+        return io.record(ntConfig.loadAndUpdate(legacyPath, type, template));
+    }
+}
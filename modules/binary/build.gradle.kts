@@ -0,0 +1,9 @@
+plugins {
+    id("ntconfig-build")
+}
+
+extra["publish"] = true
+
+dependencies {
+    api(projects.modules.core)
+}
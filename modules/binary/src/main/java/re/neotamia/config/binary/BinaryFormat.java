@@ -0,0 +1,66 @@
+package re.neotamia.config.binary;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.format.BinaryConfigFormat;
+import re.neotamia.nightconfig.core.Config;
+import re.neotamia.nightconfig.core.ConfigFormat;
+import re.neotamia.nightconfig.core.UnmodifiableConfig;
+import re.neotamia.nightconfig.core.io.ParsingException;
+import re.neotamia.nightconfig.core.io.ParsingMode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compact binary configuration format, meant for configurations exchanged between programs rather
+ * than edited by hand. Files are length-prefixed, store every key once in a dictionary, encode
+ * integers as varints and lists of numbers as typed arrays, so they are smaller than their text
+ * equivalent and parsed without any tokenizing. Comments are not supported.
+ */
+public final class BinaryFormat implements ConfigFormat<Config>, BinaryConfigFormat {
+    private static final BinaryFormat INSTANCE = new BinaryFormat();
+
+    /**
+     * Returns the binary format.
+     *
+     * @return the shared instance
+     */
+    public static @NotNull BinaryFormat instance() {
+        return INSTANCE;
+    }
+
+    private BinaryFormat() {}
+
+    @Override
+    public @NotNull BinaryWriter createWriter() {
+        return new BinaryWriter();
+    }
+
+    @Override
+    public @NotNull BinaryParser createParser() {
+        return new BinaryParser(this);
+    }
+
+    @Override
+    public @NotNull Config createConfig(@NotNull Supplier<Map<String, Object>> mapCreator) {
+        return Config.of(mapCreator, this);
+    }
+
+    @Override
+    public boolean supportsComments() {
+        return false;
+    }
+
+    @Override
+    public void parse(@NotNull ByteBuffer input, @NotNull Config destination) throws ParsingException {
+        createParser().parse(input, destination, ParsingMode.REPLACE);
+    }
+
+    @Override
+    public void write(@NotNull UnmodifiableConfig config, @NotNull OutputStream output) throws IOException {
+        createWriter().write(config, output);
+    }
+}
@@ -0,0 +1,20 @@
+package re.neotamia.config.binary;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.NTConfig;
+import re.neotamia.config.format.FormatModule;
+
+/**
+ * ServiceLoader provider for registering the binary format.
+ */
+public final class BinaryFormatModule implements FormatModule {
+    /**
+     * Creates a binary format module provider.
+     */
+    public BinaryFormatModule() {}
+
+    @Override
+    public void register(@NotNull NTConfig config) {
+        BinaryModule.register(config);
+    }
+}
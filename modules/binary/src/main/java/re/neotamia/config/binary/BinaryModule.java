@@ -0,0 +1,38 @@
+package re.neotamia.config.binary;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.NTConfig;
+
+/**
+ * Helper methods to register the binary format for {@link NTConfig}.
+ */
+public final class BinaryModule {
+    /**
+     * Default extensions for binary configs.
+     */
+    public static final String[] DEFAULT_EXTENSIONS = {"ntb"};
+
+    /**
+     * Utility class.
+     */
+    private BinaryModule() {}
+
+    /**
+     * Registers the binary format with the default extensions.
+     *
+     * @param config the NTConfig instance to register on
+     */
+    public static void register(@NotNull NTConfig config) {
+        register(config, DEFAULT_EXTENSIONS.clone());
+    }
+
+    /**
+     * Registers the binary format with custom extensions.
+     *
+     * @param config     the NTConfig instance to register on
+     * @param extensions the file extensions to bind
+     */
+    public static void register(@NotNull NTConfig config, @NotNull String... extensions) {
+        config.registerFormat(BinaryFormat.instance(), extensions);
+    }
+}
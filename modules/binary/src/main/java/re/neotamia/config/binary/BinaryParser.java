@@ -0,0 +1,230 @@
+package re.neotamia.config.binary;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.nightconfig.core.Config;
+import re.neotamia.nightconfig.core.ConfigFormat;
+import re.neotamia.nightconfig.core.NullObject;
+import re.neotamia.nightconfig.core.io.ConfigParser;
+import re.neotamia.nightconfig.core.io.ParsingException;
+import re.neotamia.nightconfig.core.io.ParsingMode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses configs from the binary encoding described by {@link BinaryTags}.
+ * <p>
+ * Keys are decoded once from the dictionary and shared by every config of the tree. An empty input
+ * is an empty config, so that a newly created empty file can be loaded. Configs and lists nested
+ * deeper than 512 levels are rejected rather than exhausting the stack.
+ */
+public final class BinaryParser implements ConfigParser<Config> {
+    private final @NotNull BinaryFormat format;
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Creates a parser for the given format.
+     *
+     * @param format the format creating the parsed configs
+     */
+    public BinaryParser(@NotNull BinaryFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public @NotNull ConfigFormat<Config> getFormat() {
+        return format;
+    }
+
+    @Override
+    public @NotNull Config parse(@NotNull Reader reader) throws ParsingException {
+        Config config = format.createConfig();
+        parse(reader, config, ParsingMode.REPLACE);
+        return config;
+    }
+
+    /**
+     * Parses a config from a character stream holding one byte per character, as ISO-8859-1 does.
+     * This only exists to fulfill {@link ConfigParser}: the stream must not decode the bytes with any
+     * other charset. NTConfig calls {@link #parse(ByteBuffer, Config, ParsingMode)} instead.
+     *
+     * @param reader      the reader to read from
+     * @param destination the config to fill
+     * @param parsingMode how the parsed entries are combined with the content of the config
+     * @throws ParsingException if the content cannot be read or is not a valid configuration
+     */
+    @Override
+    public void parse(@NotNull Reader reader, @NotNull Config destination, @NotNull ParsingMode parsingMode) throws ParsingException {
+        StringBuilder chars = new StringBuilder();
+        try {
+            char[] chunk = new char[8192];
+            for (int read; (read = reader.read(chunk)) != -1; ) chars.append(chunk, 0, read);
+        } catch (IOException e) {
+            throw new ParsingException("Failed to read the binary configuration", e);
+        }
+        byte[] bytes = new byte[chars.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            char c = chars.charAt(i);
+            if (c > 0xFF)
+                throw new ParsingException("Binary configurations must be read as ISO-8859-1, found character " + (int) c);
+            bytes[i] = (byte) c;
+        }
+        parse(ByteBuffer.wrap(bytes), destination, parsingMode);
+    }
+
+    /**
+     * Parses a config from the remaining bytes of a buffer.
+     *
+     * @param input       the bytes to parse; the position of the buffer is advanced past the config
+     * @param destination the config to fill
+     * @param parsingMode how the parsed entries are combined with the content of the config
+     * @throws ParsingException if the bytes are not a valid configuration
+     */
+    public void parse(@NotNull ByteBuffer input, @NotNull Config destination, @NotNull ParsingMode parsingMode) throws ParsingException {
+        ByteBuffer in = input.slice().order(ByteOrder.BIG_ENDIAN);
+        Config parsed = destination.createSubConfig();
+        try {
+            if (in.hasRemaining()) {
+                if (in.getInt() != BinaryTags.MAGIC)
+                    throw new ParsingException("Not a binary configuration");
+                int version = in.get() & 0xFF;
+                if (version != BinaryTags.VERSION)
+                    throw new ParsingException("Unsupported binary configuration version " + version);
+
+                String[] keys = new String[readCount(in)];
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = readString(in);
+                }
+                readConfig(in, keys, parsed, 0);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new ParsingException("Truncated binary configuration");
+        } catch (ArrayIndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+            throw new ParsingException("Malformed binary configuration", e);
+        }
+        input.position(input.position() + in.position());
+
+        if (parsingMode == ParsingMode.REPLACE)
+            destination.clear();
+        for (Map.Entry<String, Object> entry : parsed.valueMap().entrySet()) {
+            if (parsingMode == ParsingMode.ADD)
+                destination.valueMap().putIfAbsent(entry.getKey(), entry.getValue());
+            else
+                destination.valueMap().put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void readConfig(@NotNull ByteBuffer in, String @NotNull [] keys, @NotNull Config config, int depth) {
+        if (depth > BinaryTags.MAX_DEPTH)
+            throw new ParsingException("Binary configuration nested deeper than " + BinaryTags.MAX_DEPTH + " levels");
+        int size = readCount(in);
+        Map<String, Object> values = config.valueMap();
+        for (int i = 0; i < size; i++) {
+            String key = keys[(int) readVarint(in)];
+            values.put(key, readValue(in, keys, config, depth));
+        }
+    }
+
+    private Object readValue(@NotNull ByteBuffer in, String @NotNull [] keys, @NotNull Config parent, int depth) {
+        byte tag = in.get();
+        return switch (tag) {
+            case BinaryTags.NULL -> NullObject.NULL_OBJECT;
+            case BinaryTags.FALSE -> false;
+            case BinaryTags.TRUE -> true;
+            case BinaryTags.INT -> (int) unzigzag(readVarint(in));
+            case BinaryTags.LONG -> unzigzag(readVarint(in));
+            case BinaryTags.FLOAT -> in.getFloat();
+            case BinaryTags.DOUBLE -> in.getDouble();
+            case BinaryTags.STRING -> readString(in);
+            case BinaryTags.BIG_INTEGER -> new BigInteger(readString(in));
+            case BinaryTags.BIG_DECIMAL -> new BigDecimal(readString(in));
+            case BinaryTags.OFFSET_DATE_TIME -> OffsetDateTime.parse(readString(in));
+            case BinaryTags.LOCAL_DATE_TIME -> LocalDateTime.parse(readString(in));
+            case BinaryTags.LOCAL_DATE -> LocalDate.parse(readString(in));
+            case BinaryTags.LOCAL_TIME -> LocalTime.parse(readString(in));
+            case BinaryTags.CONFIG -> {
+                Config config = parent.createSubConfig();
+                readConfig(in, keys, config, depth + 1);
+                yield config;
+            }
+            case BinaryTags.LIST, BinaryTags.INT_ARRAY, BinaryTags.LONG_ARRAY, BinaryTags.FLOAT_ARRAY, BinaryTags.DOUBLE_ARRAY ->
+                    readList(in, keys, parent, tag, depth + 1);
+            default -> throw new ParsingException("Unknown binary configuration tag " + tag);
+        };
+    }
+
+    private @NotNull List<Object> readList(@NotNull ByteBuffer in, String @NotNull [] keys, @NotNull Config parent, byte tag,
+                                           int depth) {
+        if (depth > BinaryTags.MAX_DEPTH)
+            throw new ParsingException("Binary configuration nested deeper than " + BinaryTags.MAX_DEPTH + " levels");
+        int size = readCount(in);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(switch (tag) {
+                case BinaryTags.INT_ARRAY -> (int) unzigzag(readVarint(in));
+                case BinaryTags.LONG_ARRAY -> unzigzag(readVarint(in));
+                case BinaryTags.FLOAT_ARRAY -> in.getFloat();
+                case BinaryTags.DOUBLE_ARRAY -> in.getDouble();
+                default -> {
+                    Object element = readValue(in, keys, parent, depth);
+                    yield element == NullObject.NULL_OBJECT ? null : element;
+                }
+            });
+        }
+        return list;
+    }
+
+    private @NotNull String readString(@NotNull ByteBuffer in) {
+        int length = readCount(in);
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        // Direct and mapped buffers are copied through a reused array
+        if (scratch.length < length)
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        in.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a length or a count, which can never exceed the number of remaining bytes: every
+     * element takes at least one byte. This keeps corrupt input from causing huge allocations.
+     */
+    private static int readCount(@NotNull ByteBuffer in) {
+        long count = readVarint(in);
+        if (count < 0 || count > in.remaining())
+            throw new BufferUnderflowException();
+        return (int) count;
+    }
+
+    private static long readVarint(@NotNull ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new ParsingException("Malformed varint in binary configuration");
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
@@ -0,0 +1,46 @@
+package re.neotamia.config.binary;
+
+/**
+ * Constants of the binary encoding.
+ * <p>
+ * A file starts with the magic number and the encoding version, followed by the key dictionary
+ * (a varint count, then each key as a varint length and its UTF-8 bytes) and the root config.
+ * A config is a varint entry count followed by, for each entry, the varint index of its key in the
+ * dictionary and its value. A value is a tag byte followed by its payload. Lengths and counts are
+ * unsigned varints, integers are zigzag varints and floating-point numbers are big-endian IEEE 754.
+ */
+final class BinaryTags {
+    static final int MAGIC = 0x4E544342; // "NTCB"
+    static final int VERSION = 1;
+
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte FLOAT = 5;
+    static final byte DOUBLE = 6;
+    static final byte STRING = 7;
+    static final byte CONFIG = 8;
+    static final byte LIST = 9;
+    static final byte INT_ARRAY = 10;
+    static final byte LONG_ARRAY = 11;
+    static final byte FLOAT_ARRAY = 12;
+    static final byte DOUBLE_ARRAY = 13;
+    static final byte BIG_INTEGER = 14;
+    static final byte BIG_DECIMAL = 15;
+    static final byte OFFSET_DATE_TIME = 16;
+    static final byte LOCAL_DATE_TIME = 17;
+    static final byte LOCAL_DATE = 18;
+    static final byte LOCAL_TIME = 19;
+
+    /**
+     * Maximum nesting depth of configs and lists, enforced on write so that every written file can be read.
+     */
+    static final int MAX_DEPTH = 512;
+
+    /**
+     * Constants class.
+     */
+    private BinaryTags() {}
+}
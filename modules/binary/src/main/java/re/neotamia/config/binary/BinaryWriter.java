@@ -0,0 +1,254 @@
+package re.neotamia.config.binary;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.nightconfig.core.NullObject;
+import re.neotamia.nightconfig.core.UnmodifiableConfig;
+import re.neotamia.nightconfig.core.io.ConfigWriter;
+import re.neotamia.nightconfig.core.io.WritingException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes configs in the binary encoding described by {@link BinaryTags}.
+ * <p>
+ * Every key is written once, in the dictionary at the start of the file, and referenced by index
+ * afterwards. Lists holding only {@link Integer}, {@link Long}, {@link Float} or {@link Double}
+ * values are written as typed arrays, without a tag per element. Configs and lists nested deeper
+ * than 512 levels are rejected, since they could not be read back.
+ */
+public final class BinaryWriter implements ConfigWriter {
+    private static final byte[] EMPTY = new byte[0];
+
+    // Only set while a config is encoded, so that the writer does not keep its largest buffer
+    private byte[] buffer = EMPTY;
+    private int count;
+
+    /**
+     * Creates a binary writer.
+     */
+    public BinaryWriter() {}
+
+    /**
+     * Writes a config as bytes.
+     *
+     * @param config the config to write
+     * @param output the stream to write to; it is not closed
+     * @throws IOException      if the stream cannot be written
+     * @throws WritingException if the config holds a value the encoding does not support
+     */
+    public void write(@NotNull UnmodifiableConfig config, @NotNull OutputStream output) throws IOException, WritingException {
+        output.write(encode(config));
+    }
+
+    /**
+     * Writes a config through a character stream, one character per byte as ISO-8859-1 does. This
+     * only exists to fulfill {@link ConfigWriter}: the stream must not encode the characters with
+     * any other charset. NTConfig calls {@link #write(UnmodifiableConfig, OutputStream)} instead.
+     *
+     * @param config the config to write
+     * @param writer the writer to write to
+     * @throws WritingException if the config cannot be written
+     */
+    @Override
+    public void write(@NotNull UnmodifiableConfig config, @NotNull Writer writer) throws WritingException {
+        byte[] bytes = encode(config);
+        char[] chars = new char[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i] = (char) (bytes[i] & 0xFF);
+        }
+        try {
+            writer.write(chars);
+        } catch (IOException e) {
+            throw new WritingException("Failed to write the binary configuration", e);
+        }
+    }
+
+    private byte @NotNull [] encode(@NotNull UnmodifiableConfig config) throws WritingException {
+        // Keys are numbered in the order they are first met, so that the dictionary is written in that order
+        Map<String, Integer> dictionary = new HashMap<>();
+        collectKeys(config, dictionary, 0);
+
+        buffer = new byte[256];
+        count = 0;
+        try {
+            writeInt32(BinaryTags.MAGIC);
+            writeByte(BinaryTags.VERSION);
+            String[] ordered = new String[dictionary.size()];
+            dictionary.forEach((key, index) -> ordered[index] = key);
+            writeVarint(ordered.length);
+            for (String key : ordered) writeString(key);
+
+            writeConfig(config, dictionary, 0);
+            return Arrays.copyOf(buffer, count);
+        } finally {
+            buffer = EMPTY;
+        }
+    }
+
+    private static void collectKeys(@NotNull UnmodifiableConfig config, @NotNull Map<String, Integer> dictionary, int depth) {
+        checkDepth(depth);
+        for (Map.Entry<String, Object> entry : config.valueMap().entrySet()) {
+            dictionary.putIfAbsent(entry.getKey(), dictionary.size());
+            collectKeys(entry.getValue(), dictionary, depth);
+        }
+    }
+
+    private static void collectKeys(Object value, @NotNull Map<String, Integer> dictionary, int depth) {
+        if (value instanceof UnmodifiableConfig config) {
+            collectKeys(config, dictionary, depth + 1);
+        } else if (value instanceof Collection<?> collection) {
+            checkDepth(depth + 1);
+            for (Object element : collection) collectKeys(element, dictionary, depth + 1);
+        }
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth > BinaryTags.MAX_DEPTH)
+            throw new WritingException("Binary configuration nested deeper than " + BinaryTags.MAX_DEPTH + " levels");
+    }
+
+    private void writeConfig(@NotNull UnmodifiableConfig config, @NotNull Map<String, Integer> dictionary, int depth) {
+        checkDepth(depth);
+        Map<String, Object> values = config.valueMap();
+        writeVarint(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            writeVarint(dictionary.get(entry.getKey()));
+            writeValue(entry.getValue(), dictionary, depth);
+        }
+    }
+
+    private void writeValue(Object value, @NotNull Map<String, Integer> dictionary, int depth) {
+        switch (value) {
+            case null -> writeByte(BinaryTags.NULL);
+            case NullObject ignored -> writeByte(BinaryTags.NULL);
+            case Boolean bool -> writeByte(bool ? BinaryTags.TRUE : BinaryTags.FALSE);
+            case Integer number -> writeTagged(BinaryTags.INT, number);
+            case Short number -> writeTagged(BinaryTags.INT, number);
+            case Byte number -> writeTagged(BinaryTags.INT, number);
+            case Long number -> writeTagged(BinaryTags.LONG, number);
+            case Float number -> {
+                writeByte(BinaryTags.FLOAT);
+                writeInt32(Float.floatToRawIntBits(number));
+            }
+            case Double number -> {
+                writeByte(BinaryTags.DOUBLE);
+                writeInt64(Double.doubleToRawLongBits(number));
+            }
+            case String string -> writeTagged(BinaryTags.STRING, string);
+            case Character character -> writeTagged(BinaryTags.STRING, character.toString());
+            case Enum<?> constant -> writeTagged(BinaryTags.STRING, constant.name());
+            case BigInteger number -> writeTagged(BinaryTags.BIG_INTEGER, number.toString());
+            case BigDecimal number -> writeTagged(BinaryTags.BIG_DECIMAL, number.toString());
+            case OffsetDateTime temporal -> writeTagged(BinaryTags.OFFSET_DATE_TIME, temporal.toString());
+            case LocalDateTime temporal -> writeTagged(BinaryTags.LOCAL_DATE_TIME, temporal.toString());
+            case LocalDate temporal -> writeTagged(BinaryTags.LOCAL_DATE, temporal.toString());
+            case LocalTime temporal -> writeTagged(BinaryTags.LOCAL_TIME, temporal.toString());
+            case UnmodifiableConfig config -> {
+                writeByte(BinaryTags.CONFIG);
+                writeConfig(config, dictionary, depth + 1);
+            }
+            case Collection<?> collection -> writeCollection(collection, dictionary, depth + 1);
+            default -> throw new WritingException("Unsupported value type for the binary format: " + value.getClass().getName());
+        }
+    }
+
+    private void writeCollection(@NotNull Collection<?> collection, @NotNull Map<String, Integer> dictionary, int depth) {
+        checkDepth(depth);
+        byte arrayTag = arrayTag(collection);
+        writeByte(arrayTag);
+        writeVarint(collection.size());
+        for (Object element : collection) {
+            switch (arrayTag) {
+                case BinaryTags.INT_ARRAY -> writeVarint(zigzag((Integer) element));
+                case BinaryTags.LONG_ARRAY -> writeVarint(zigzag((Long) element));
+                case BinaryTags.FLOAT_ARRAY -> writeInt32(Float.floatToRawIntBits((Float) element));
+                case BinaryTags.DOUBLE_ARRAY -> writeInt64(Double.doubleToRawLongBits((Double) element));
+                default -> writeValue(element, dictionary, depth);
+            }
+        }
+    }
+
+    private static byte arrayTag(@NotNull Collection<?> collection) {
+        if (collection.isEmpty())
+            return BinaryTags.LIST;
+        Class<?> type = null;
+        for (Object element : collection) {
+            if (element == null || type != null && element.getClass() != type)
+                return BinaryTags.LIST;
+            type = element.getClass();
+        }
+        if (type == Integer.class) return BinaryTags.INT_ARRAY;
+        if (type == Long.class) return BinaryTags.LONG_ARRAY;
+        if (type == Float.class) return BinaryTags.FLOAT_ARRAY;
+        if (type == Double.class) return BinaryTags.DOUBLE_ARRAY;
+        return BinaryTags.LIST;
+    }
+
+    private void writeTagged(byte tag, long number) {
+        writeByte(tag);
+        writeVarint(zigzag(number));
+    }
+
+    private void writeTagged(byte tag, @NotNull String string) {
+        writeByte(tag);
+        writeString(string);
+    }
+
+    private void writeString(@NotNull String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[count++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        buffer[count++] = (byte) value;
+    }
+
+    private void writeInt32(int value) {
+        ensureCapacity(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[count++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeInt64(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[count++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) value;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (count + bytes > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + bytes));
+    }
+}
@@ -0,0 +1,23 @@
+package re.neotamia.config.binary
+
+import re.neotamia.config.NTConfig
+
+/**
+ * Registers the binary format with default extensions.
+ */
+fun NTConfig.registerBinary() {
+    BinaryModule.register(this)
+}
+
+/**
+ * Registers the binary format with custom extensions.
+ *
+ * If no extensions are provided, the default extensions are used.
+ */
+fun NTConfig.registerBinary(vararg extensions: String) {
+    if (extensions.isEmpty()) {
+        BinaryModule.register(this, *BinaryModule.DEFAULT_EXTENSIONS)
+    } else {
+        BinaryModule.register(this, *extensions)
+    }
+}
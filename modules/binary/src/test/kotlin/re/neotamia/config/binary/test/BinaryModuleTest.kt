@@ -0,0 +1,142 @@
+package re.neotamia.config.binary.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.binary.BinaryFormat
+import re.neotamia.config.binary.registerBinary
+import re.neotamia.config.format.FormatModules
+import re.neotamia.nightconfig.core.Config
+import re.neotamia.nightconfig.core.io.ParsingException
+import re.neotamia.nightconfig.core.io.WritingException
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class BinaryModuleTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class Endpoint {
+        var host: String = "localhost"
+        var port: Int = 80
+    }
+
+    class ServiceConfig {
+        var name: String = "service"
+        var enabled: Boolean = true
+        var timeout: Long = 30_000
+        var ratio: Double = 0.75
+        var ports: List<Int> = listOf(8080, -1, 65535)
+        var endpoints: List<String> = listOf("a", "b")
+        var primary: Endpoint = Endpoint()
+        var fallback: Endpoint = Endpoint()
+    }
+
+    @Test
+    fun `saves and loads binary files`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerBinary()
+
+        val path = tempDir.resolve("service.ntb")
+        val config = ServiceConfig().apply {
+            name = "Dienst ✓"
+            primary.host = "example.org"
+            primary.port = 443
+        }
+        ntConfig.save(path, config).close()
+
+        val loaded = ntConfig.load(path, ServiceConfig::class.java)
+        assertEquals("Dienst ✓", loaded.name)
+        assertEquals(30_000L, loaded.timeout)
+        assertEquals(0.75, loaded.ratio)
+        assertEquals(listOf(8080, -1, 65535), loaded.ports)
+        assertEquals(listOf("a", "b"), loaded.endpoints)
+        assertEquals("example.org", loaded.primary.host)
+        assertEquals(443, loaded.primary.port)
+    }
+
+    @Test
+    fun `service loader registers binary format`() {
+        val ntConfig = NTConfig()
+        FormatModules.registerAvailable(ntConfig)
+
+        val path = tempDir.resolve("auto.ntb")
+        ntConfig.save(path, ServiceConfig()).close()
+
+        assertTrue(Files.exists(path))
+        assertEquals("service", ntConfig.load(path, ServiceConfig::class.java).name)
+    }
+
+    @Test
+    fun `keys are written once and numbers as typed arrays`() {
+        val tree = Config.inMemory()
+        for (i in 0 until 100) {
+            val entry = Config.inMemory()
+            entry.set<String>("identifier", "entry-$i")
+            entry.set<List<Long>>("samples", listOf(1L, 2L, 3L))
+            tree.set<Config>("entry$i", entry)
+        }
+        val out = ByteArrayOutputStream()
+        BinaryFormat.instance().write(tree, out)
+        val bytes = out.toByteArray()
+        assertEquals(1, Regex("identifier").findAll(String(bytes, Charsets.ISO_8859_1)).count())
+
+        val parsed = Config.inMemory()
+        BinaryFormat.instance().parse(ByteBuffer.wrap(bytes), parsed)
+        assertEquals("entry-42", parsed.get<String>("entry42.identifier"))
+        assertEquals(listOf(1L, 2L, 3L), parsed.get<List<Long>>("entry99.samples"))
+    }
+
+    @Test
+    fun `truncated input is rejected`() {
+        val out = ByteArrayOutputStream()
+        BinaryFormat.instance().write(Config.inMemory().apply { set<String>("key", "value") }, out)
+        val truncated = out.toByteArray().copyOf(out.size() - 2)
+
+        assertFailsWith<ParsingException> {
+            BinaryFormat.instance().parse(ByteBuffer.wrap(truncated), Config.inMemory())
+        }
+    }
+
+    @Test
+    fun `deeply nested input is rejected`() {
+        val out = ByteArrayOutputStream()
+        // Magic number, version and a dictionary holding the single key "a"
+        out.write(byteArrayOf(0x4E, 0x54, 0x43, 0x42, 1, 1, 1, 'a'.code.toByte()))
+        // Each level is a config with one entry "a" holding the next config
+        repeat(100_000) { out.write(byteArrayOf(1, 0, 8)) }
+        out.write(0)
+
+        assertFailsWith<ParsingException> {
+            BinaryFormat.instance().parse(ByteBuffer.wrap(out.toByteArray()), Config.inMemory())
+        }
+    }
+
+    @Test
+    fun `configs too deep to be read back are not written`() {
+        fun nested(depth: Int): Config {
+            var config = Config.inMemory()
+            repeat(depth) {
+                val parent = Config.inMemory()
+                parent.set<Config>("a", config)
+                config = parent
+            }
+            return config
+        }
+
+        val out = ByteArrayOutputStream()
+        BinaryFormat.instance().write(nested(512), out)
+        val parsed = Config.inMemory()
+        BinaryFormat.instance().parse(ByteBuffer.wrap(out.toByteArray()), parsed)
+        assertTrue(parsed.contains("a"))
+
+        assertFailsWith<WritingException> {
+            BinaryFormat.instance().write(nested(513), ByteArrayOutputStream())
+        }
+    }
+}
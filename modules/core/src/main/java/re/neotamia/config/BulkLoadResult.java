@@ -0,0 +1,34 @@
+package re.neotamia.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Result of loading many configuration files at once.
+ * A failure of one file never prevents the other files from being loaded.
+ *
+ * @param <T>      the configuration type
+ * @param loaded   the successfully loaded configurations, by file
+ * @param failures the failures, by file
+ */
+public record BulkLoadResult<T>(@NotNull Map<Path, T> loaded, @NotNull Map<Path, Throwable> failures) {
+    /**
+     * Returns whether every file was loaded successfully.
+     *
+     * @return true if no file failed
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Returns the number of files that were processed.
+     *
+     * @return the number of loaded and failed files
+     */
+    public int size() {
+        return loaded.size() + failures.size();
+    }
+}
@@ -0,0 +1,102 @@
+package re.neotamia.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.nightconfig.core.UnmodifiableConfig;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Configuration section deserialized on first access.
+ * <p>
+ * Declaring a field as {@code Lazy<Section>} keeps the raw section of the file when the configuration
+ * is loaded, and only deserializes it into a {@code Section} the first time {@link #get()} is called.
+ * The result is then cached. A section that was never accessed is saved back from its raw form,
+ * without being deserialized. Lazy sections must be enabled with {@link NTConfig#enableLazySections()}.
+ *
+ * @param <T> the type of the section
+ */
+public final class Lazy<T> implements Supplier<T> {
+    private volatile boolean materialized;
+    private @Nullable T value;
+    private @Nullable UnmodifiableConfig section;
+    private @Nullable Function<UnmodifiableConfig, T> materializer;
+
+    private Lazy(@Nullable T value, @Nullable UnmodifiableConfig section, @Nullable Function<UnmodifiableConfig, T> materializer,
+                 boolean materialized) {
+        this.value = value;
+        this.section = section;
+        this.materializer = materializer;
+        this.materialized = materialized;
+    }
+
+    /**
+     * Creates a lazy section that already holds its value, typically the default value of a field.
+     *
+     * @param value the value of the section
+     * @param <T>   the type of the section
+     * @return a materialized lazy section
+     */
+    public static <T> @NotNull Lazy<T> of(@NotNull T value) {
+        return new Lazy<>(value, null, null, true);
+    }
+
+    /**
+     * Creates a lazy section deserialized from a raw section on first access.
+     *
+     * @param section      the raw section
+     * @param materializer deserializes the raw section
+     * @param <T>          the type of the section
+     * @return a lazy section that is not materialized yet
+     */
+    static <T> @NotNull Lazy<T> deferred(@NotNull UnmodifiableConfig section, @NotNull Function<UnmodifiableConfig, T> materializer) {
+        return new Lazy<>(null, section, materializer, false);
+    }
+
+    /**
+     * Returns the section, deserializing it on the first call.
+     *
+     * @return the section
+     * @throws NTConfigException if the section cannot be deserialized
+     */
+    @Override
+    public T get() throws NTConfigException {
+        if (!materialized) {
+            synchronized (this) {
+                if (!materialized) {
+                    value = materializer.apply(section);
+                    section = null;
+                    materializer = null;
+                    materialized = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether the section has been deserialized.
+     *
+     * @return true if {@link #get()} returns without deserializing
+     */
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    /**
+     * Returns the form the section is saved as: the raw section if it was never accessed, or the
+     * value serialized by the given function otherwise.
+     *
+     * @param serializer serializes a materialized value
+     * @return the serialized section
+     */
+    synchronized Object serializedForm(@NotNull Function<T, Object> serializer) {
+        return materialized ? serializer.apply(value) : section;
+    }
+
+    @Override
+    public String toString() {
+        return materialized ? "Lazy[" + value + "]" : "Lazy[not materialized]";
+    }
+}
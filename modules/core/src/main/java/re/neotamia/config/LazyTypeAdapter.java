@@ -0,0 +1,81 @@
+package re.neotamia.config;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.nightconfig.core.CommentedConfig;
+import re.neotamia.nightconfig.core.UnmodifiableConfig;
+import re.neotamia.nightconfig.core.serde.DeserializerContext;
+import re.neotamia.nightconfig.core.serde.SerdeContext;
+import re.neotamia.nightconfig.core.serde.SerdeException;
+import re.neotamia.nightconfig.core.serde.SerializerContext;
+import re.neotamia.nightconfig.core.serde.TypeAdapter;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.function.Function;
+
+/**
+ * Type adapter keeping {@link Lazy} sections in their raw form until they are accessed.
+ */
+final class LazyTypeAdapter implements TypeAdapter<Lazy<?>, Object> {
+    private final @NotNull SerdeContext serdeContext;
+    private final @NotNull Function<Class<?>, Object> instantiator;
+
+    /**
+     * Creates a lazy section adapter.
+     *
+     * @param serdeContext the serde context deserializing and serializing the sections
+     * @param instantiator creates an empty instance of a section type
+     */
+    LazyTypeAdapter(@NotNull SerdeContext serdeContext, @NotNull Function<Class<?>, Object> instantiator) {
+        this.serdeContext = serdeContext;
+        this.instantiator = instantiator;
+    }
+
+    @Override
+    public boolean canHandle(@NotNull Type type) {
+        return type == Lazy.class || type instanceof ParameterizedType parameterized && parameterized.getRawType() == Lazy.class;
+    }
+
+    @Override
+    public @NotNull Object serialize(@NotNull Lazy<?> value, @NotNull Type type, @NotNull SerializerContext ctx) {
+        return value.serializedForm(section -> {
+            CommentedConfig config = CommentedConfig.inMemory();
+            try {
+                serdeContext.getSerializer().serializeFields(section, config);
+            } catch (SerdeException e) {
+                throw new NTConfigException(SerdeErrorFormatter.buildSerdeMessage("serialize", section.getClass().getName(), e), e);
+            }
+            return config;
+        });
+    }
+
+    @Override
+    public @NotNull Lazy<?> deserialize(@NotNull Object value, @NotNull Type type, @NotNull DeserializerContext ctx) {
+        Class<?> sectionType = sectionType(type);
+        if (!(value instanceof UnmodifiableConfig section))
+            throw new NTConfigException("Lazy section of type " + sectionType.getName() + " must be a config section, found "
+                    + value.getClass().getName());
+        return Lazy.deferred(section, raw -> materialize(raw, sectionType));
+    }
+
+    private @NotNull Object materialize(@NotNull UnmodifiableConfig section, @NotNull Class<?> sectionType) {
+        Object instance = instantiator.apply(sectionType);
+        try {
+            serdeContext.getDeserializer().deserializeFields(section, instance);
+        } catch (SerdeException e) {
+            throw new NTConfigException(SerdeErrorFormatter.buildSerdeMessage("deserialize", sectionType.getName(), e), e);
+        }
+        return instance;
+    }
+
+    private static @NotNull Class<?> sectionType(@NotNull Type type) {
+        if (type instanceof ParameterizedType parameterized) {
+            Type argument = parameterized.getActualTypeArguments()[0];
+            if (argument instanceof Class<?> clazz)
+                return clazz;
+            if (argument instanceof ParameterizedType parameterizedArgument && parameterizedArgument.getRawType() instanceof Class<?> clazz)
+                return clazz;
+        }
+        throw new NTConfigException("Lazy sections must declare a concrete section type: " + type.getTypeName());
+    }
+}
@@ -0,0 +1,151 @@
+package re.neotamia.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.migration.version.MigrationVersion;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report of the migration of many configuration files at once.
+ * A failure of one file never prevents the other files from being migrated.
+ *
+ * @param entries the outcome of every file, in the order the files were listed
+ * @param elapsed the wall-clock time of the whole run
+ */
+public record MigrationReport(@NotNull List<Entry> entries, @NotNull Duration elapsed) {
+    /**
+     * Returns whether every file was migrated or loaded successfully.
+     *
+     * @return true if no file failed
+     */
+    public boolean isSuccessful() {
+        return failedCount() == 0;
+    }
+
+    /**
+     * Returns the number of files that were processed.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of files that went through at least one migration, i.e. whose version changed.
+     * Files that were only rewritten, e.g. to add missing defaults, are counted by {@link #writtenCount()}.
+     *
+     * @return the number of migrated files
+     */
+    public int migratedCount() {
+        return (int) entries.stream().filter(Entry::migrated).count();
+    }
+
+    /**
+     * Returns the number of files that were written.
+     *
+     * @return the number of written files
+     */
+    public int writtenCount() {
+        return (int) entries.stream().filter(Entry::written).count();
+    }
+
+    /**
+     * Returns the number of files that failed.
+     *
+     * @return the number of failed files
+     */
+    public int failedCount() {
+        return (int) entries.stream().filter(entry -> entry.failure() != null).count();
+    }
+
+    /**
+     * Returns the failures, by file.
+     *
+     * @return the failures, in the order the files were listed
+     */
+    public @NotNull Map<Path, Throwable> failures() {
+        Map<Path, Throwable> failures = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            if (entry.failure() != null) failures.put(entry.path(), entry.failure());
+        }
+        return failures;
+    }
+
+    /**
+     * Returns a percentile of the per-file durations, using the nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the duration below which the given percentage of files completed, or zero if the report is empty
+     * @throws IllegalArgumentException if {@code percentile} is out of range
+     */
+    public @NotNull Duration percentile(double percentile) throws IllegalArgumentException {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        if (entries.isEmpty()) return Duration.ZERO;
+
+        long[] nanos = new long[entries.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = entries.get(i).duration().toNanos();
+        }
+        Arrays.sort(nanos);
+        int rank = (int) Math.ceil(percentile / 100 * nanos.length);
+        return Duration.ofNanos(nanos[Math.max(rank, 1) - 1]);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "MigrationReport{" +
+                "files=" + size() +
+                ", migrated=" + migratedCount() +
+                ", written=" + writtenCount() +
+                ", failed=" + failedCount() +
+                ", elapsed=" + elapsed +
+                ", p50=" + percentile(50) +
+                ", p99=" + percentile(99) +
+                '}';
+    }
+
+    /**
+     * Outcome of a single file. Only the versions and the backup are kept, not the loaded instance, so
+     * that a report over many files does not hold every configuration in memory.
+     *
+     * @param path       the configuration file
+     * @param migrated   whether the file went through at least one migration, i.e. its version changed
+     * @param oldVersion the version of the file before migration, or null if unknown or the file failed
+     * @param newVersion the version of the file after migration, or null if unknown or the file failed
+     * @param backupPath the backup created before the file was migrated, or null if no backup was created
+     * @param written    whether the file was written
+     * @param failure    the failure, or null if the file succeeded
+     * @param duration   the time spent migrating and loading the file
+     */
+    public record Entry(@NotNull Path path, boolean migrated, @Nullable MigrationVersion oldVersion,
+                        @Nullable MigrationVersion newVersion, @Nullable Path backupPath, boolean written,
+                        @Nullable Throwable failure, @NotNull Duration duration) {
+        /**
+         * Creates the entry of a file that failed.
+         *
+         * @param path     the configuration file
+         * @param failure  the failure
+         * @param duration the time spent before the file failed
+         */
+        public Entry(@NotNull Path path, @NotNull Throwable failure, @NotNull Duration duration) {
+            this(path, false, null, null, null, false, failure, duration);
+        }
+
+        /**
+         * Returns whether the file was migrated or loaded successfully.
+         *
+         * @return true if the file did not fail
+         */
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+    }
+}
@@ -2,34 +2,104 @@ package re.neotamia.config;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import re.neotamia.config.annotation.ConfigHeader;
+import re.neotamia.config.backup.BackupMode;
+import re.neotamia.config.format.BinaryConfigFormat;
+import re.neotamia.config.format.VersionProbe;
+import re.neotamia.config.io.AtomicFileWriter;
+import re.neotamia.config.io.ByteBufferReader;
+import re.neotamia.config.io.ChannelWriter;
+import re.neotamia.config.io.ContentHashCache;
+import re.neotamia.config.io.SaveDurability;
+import re.neotamia.config.io.SnapshotCache;
+import re.neotamia.config.jfr.ConfigLoadEvent;
+import re.neotamia.config.jfr.ConfigMigrationEvent;
+import re.neotamia.config.jfr.ConfigSaveEvent;
+import re.neotamia.config.metadata.ConfigClassMetadata;
+import re.neotamia.config.metadata.ConfigMetadataCache;
+import re.neotamia.config.metrics.ConfigMetrics;
 import re.neotamia.config.migration.hook.MigrationHook;
 import re.neotamia.config.migration.core.ConfigMigrationManager;
 import re.neotamia.config.migration.core.ConfigTreeMerger;
 import re.neotamia.config.migration.core.MergeStrategy;
 import re.neotamia.config.migration.step.ConfigMigrationStep;
+import re.neotamia.config.migration.version.MigrationVersion;
 import re.neotamia.config.migration.version.VersionUtils;
 import re.neotamia.config.registry.FormatRegistry;
 import re.neotamia.config.saveable.Saveable;
 import re.neotamia.config.saveable.SaveableCommented;
+import re.neotamia.config.watch.ConfigWatcher;
+import re.neotamia.nightconfig.core.CommentedConfig;
 import re.neotamia.nightconfig.core.Config;
 import re.neotamia.nightconfig.core.ConfigFormat;
 import re.neotamia.nightconfig.core.file.CommentedFileConfig;
 import re.neotamia.nightconfig.core.file.FileConfig;
+import re.neotamia.nightconfig.core.io.ConfigWriter;
+import re.neotamia.nightconfig.core.io.ParsingMode;
 import re.neotamia.nightconfig.core.serde.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Main entry point for reading, writing, and migrating configuration files.
  */
 public class NTConfig {
+    private static final Duration DEFAULT_WATCH_DEBOUNCE = Duration.ofMillis(200);
+    private static final int VERSION_KEY_SENTINEL = 1_987_654_321;
+    // Mapped files cannot be replaced on Windows until the mapping is collected, which breaks atomic saves
+    private static final long DEFAULT_MAPPED_READ_THRESHOLD = System.getProperty("os.name", "").startsWith("Windows") ? Long.MAX_VALUE : 1L << 20;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_WRITE_BUFFERS = 4;
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = Thread.ofVirtual().name("NTConfig-IO-", 0).factory();
+    private static final Executor VIRTUAL_THREAD_EXECUTOR = task -> VIRTUAL_THREAD_FACTORY.newThread(task).start();
+
     private final FormatRegistry formatRegistry = new FormatRegistry();
     private final SerdeContext serdeContext;
     private final ConfigTreeMerger configTreeMerger = new ConfigTreeMerger();
+    private final ConfigMetadataCache metadataCache = new ConfigMetadataCache();
     private ConfigMigrationManager migrationManager = new ConfigMigrationManager();
     private @NotNull NamingStrategy namingStrategy;
+    private @NotNull Executor asyncExecutor = VIRTUAL_THREAD_EXECUTOR;
+    private final ContentHashCache contentHashes = new ContentHashCache();
+    private @Nullable SnapshotCache snapshotCache;
+    private long mappedReadThreshold = DEFAULT_MAPPED_READ_THRESHOLD;
+    private boolean streamingSaves = false;
+    private boolean lazySections = false;
+    private final Queue<ByteBuffer> writeBuffers = new ArrayBlockingQueue<>(MAX_POOLED_WRITE_BUFFERS);
+    private boolean atomicSaves = false;
+    private @NotNull ConfigMetrics metrics = ConfigMetrics.noop();
+    private boolean skipUnchangedWrites = false;
+    private @NotNull SaveDurability saveDurability = SaveDurability.NONE;
 
     /**
      * Constructs an NTConfig instance with standard object serializer and deserializer.
@@ -112,16 +182,324 @@ public class NTConfig {
      * @throws RuntimeException if any errors occur during the serialization or saving process
      */
     public <T> @NotNull FileConfig save(@NotNull FileConfig fileConfig, @NotNull T config) throws RuntimeException {
+        save(fileConfig, config, skipUnchangedWrites);
+        return fileConfig;
+    }
+
+    /**
+     * Serializes the provided configuration object and saves it to a file at the specified path,
+     * unless the file already holds exactly the serialized content.
+     *
+     * @param <T>    the type of the configuration object
+     * @param path   the path to the configuration file; must not be null
+     * @param config the configuration object to serialize and save; must not be null
+     * @return the file configuration used for saving and whether the file was written; never null
+     * @throws RuntimeException if any errors occur during the serialization or saving process
+     */
+    public <T> @NotNull SaveResult saveIfChanged(@NotNull Path path, @NotNull T config) throws RuntimeException {
+        FileConfig fileConfig = FileConfig.builder(path).sync().build();
+        return saveIfChanged(fileConfig, config);
+    }
+
+    /**
+     * Serializes the provided configuration object into the specified file configuration and saves it,
+     * unless the file already holds exactly the serialized content.
+     *
+     * @param <T>        the type of the configuration object
+     * @param fileConfig the file configuration to save to; must not be null
+     * @param config     the configuration object to serialize and save; must not be null
+     * @return the provided file configuration and whether the file was written; never null
+     * @throws RuntimeException if any errors occur during the serialization or saving process
+     */
+    public <T> @NotNull SaveResult saveIfChanged(@NotNull FileConfig fileConfig, @NotNull T config) throws RuntimeException {
+        return new SaveResult(fileConfig, save(fileConfig, config, true));
+    }
+
+    /**
+     * Serializes the configuration object into the file configuration and writes it.
+     *
+     * @param fileConfig    the file configuration to save to; must not be null
+     * @param config        the configuration object to serialize and save; must not be null
+     * @param skipUnchanged whether to skip the write when the file already holds the serialized content
+     * @param <T>           the type of the configuration object
+     * @return true if the file was written
+     */
+    private <T> boolean save(@NotNull FileConfig fileConfig, @NotNull T config, boolean skipUnchanged) throws NTConfigException {
         if (fileConfig instanceof CommentedFileConfig commentedFileConfig) {
-            ConfigHeader header = config.getClass().getAnnotation(ConfigHeader.class);
-            if (header != null && !header.value().isEmpty())
-                commentedFileConfig.setHeaderComment(header.value());
+            String header = metadataCache.get(config.getClass()).header();
+            if (header != null)
+                commentedFileConfig.setHeaderComment(header);
         }
 
+        ConfigSaveEvent event = new ConfigSaveEvent();
+        event.begin();
         saveToConfig(fileConfig, config);
+        boolean written = write(fileConfig, skipUnchanged);
+        if (event.shouldCommit()) {
+            Path path = fileConfig.getNioPath();
+            event.path = path.toString();
+            event.format = extension(path);
+            event.size = sizeOf(path);
+            event.configClass = config.getClass();
+            event.written = written;
+            event.commit();
+        }
+        return written;
+    }
 
-        fileConfig.save();
-        return fileConfig;
+    /**
+     * Writes the file configuration to its file, atomically if enabled.
+     *
+     * @param fileConfig    the file configuration to write; must not be null
+     * @param skipUnchanged whether to skip the write when the file already holds the serialized content
+     * @return true if the file was written
+     * @throws NTConfigException if the file cannot be written
+     */
+    private boolean write(@NotNull FileConfig fileConfig, boolean skipUnchanged) throws NTConfigException {
+        Path path = fileConfig.getNioPath();
+        boolean atomic = replacesFiles();
+        long start = System.nanoTime();
+        try {
+            if (fileConfig.configFormat() instanceof BinaryConfigFormat binary) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                binary.write(fileConfig, out);
+                return writeContent(path, out.toByteArray(), skipUnchanged, atomic, start);
+            }
+            if (streamingSaves)
+                return writeStreaming(fileConfig, path, skipUnchanged, start);
+            if (!skipUnchanged) {
+                if (!atomic) {
+                    fileConfig.save();
+                    contentHashes.forget(path);
+                    written(path, -1, start);
+                    return true;
+                }
+                var writer = fileConfig.configFormat().createWriter();
+                AtomicFileWriter.write(path, saveDurability, out -> {
+                    Writer fileWriter = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    writer.write(fileConfig, fileWriter);
+                    fileWriter.flush();
+                });
+                contentHashes.forget(path);
+                written(path, -1, start);
+                return true;
+            }
+
+            byte[] content = fileConfig.configFormat().createWriter().writeToString(fileConfig).getBytes(StandardCharsets.UTF_8);
+            return writeContent(path, content, true, atomic, start);
+        } catch (IOException e) {
+            throw new NTConfigException("Failed to save configuration file " + path, e);
+        }
+    }
+
+    /**
+     * Writes already rendered content to the file, unless unchanged writes are skipped and the file
+     * already holds it.
+     *
+     * @return true if the file was written
+     */
+    private boolean writeContent(@NotNull Path path, byte @NotNull [] content, boolean skipUnchanged, boolean atomic, long start)
+            throws IOException {
+        if (skipUnchanged && contentHashes.matches(path, content)) {
+            metrics.writeSkipped(path);
+            return false;
+        }
+
+        if (atomic) {
+            AtomicFileWriter.write(path, saveDurability, out -> out.write(content));
+        } else {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            Files.write(path, content);
+        }
+        if (skipUnchanged)
+            contentHashes.remember(path, content);
+        else
+            contentHashes.forget(path);
+        written(path, content.length, start);
+        return true;
+    }
+
+    /**
+     * Renders the file configuration straight to the channel of the file through a pooled direct
+     * buffer, so that the content is never held in memory as a whole. When unchanged writes are
+     * skipped, a first pass only measures and hashes the rendered content to compare it with the file.
+     * <p>
+     * The file is always replaced atomically: since rendering is interleaved with writing, a writer
+     * failing halfway would otherwise leave a truncated file behind.
+     *
+     * @return true if the file was written, false if it already held the same content
+     */
+    private boolean writeStreaming(@NotNull FileConfig fileConfig, @NotNull Path path, boolean skipUnchanged, long start)
+            throws IOException {
+        ConfigWriter writer = fileConfig.configFormat().createWriter();
+        ByteBuffer buffer = writeBuffers.poll();
+        if (buffer == null)
+            buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        try {
+            byte[] digest = null;
+            if (skipUnchanged) {
+                MessageDigest contentDigest = ContentHashCache.newDigest();
+                ChannelWriter sink = new ChannelWriter(null, buffer, contentDigest);
+                writer.write(fileConfig, sink);
+                sink.close();
+                digest = contentDigest.digest();
+                if (contentHashes.matches(path, sink.bytesWritten(), digest)) {
+                    metrics.writeSkipped(path);
+                    return false;
+                }
+            }
+
+            ByteBuffer channelBuffer = buffer;
+            long[] size = new long[1];
+            AtomicFileWriter.ChannelContent content = channel -> {
+                ChannelWriter out = new ChannelWriter(channel, channelBuffer, null);
+                writer.write(fileConfig, out);
+                out.close();
+                size[0] = out.bytesWritten();
+            };
+            AtomicFileWriter.writeChannel(path, saveDurability, content);
+
+            if (digest != null)
+                contentHashes.rememberDigest(path, size[0], digest);
+            else
+                contentHashes.forget(path);
+            written(path, size[0], start);
+            return true;
+        } finally {
+            // Buffers beyond the pool capacity are dropped and freed with the garbage collector
+            writeBuffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Reports a write to the metrics, measuring the size of the file when the writer did not expose it.
+     */
+    private void written(@NotNull Path path, long bytes, long start) throws IOException {
+        if (metrics == ConfigMetrics.noop()) return;
+        long duration = System.nanoTime() - start;
+        metrics.fileWritten(path, bytes >= 0 ? bytes : Files.size(path), duration);
+    }
+
+    /**
+     * Returns whether files must be replaced rather than rewritten in place, which is the case when
+     * atomic saves are enabled or when backups are hard links sharing the content of the file.
+     *
+     * @return true if saves go through {@link AtomicFileWriter}
+     */
+    private boolean replacesFiles() {
+        return atomicSaves || migrationManager.getBackupManager().mode() == BackupMode.LINK;
+    }
+
+    /**
+     * Reads the file of the file configuration, remembering the digest of its content when
+     * unchanged writes are skipped.
+     *
+     * @param fileConfig the file configuration to load; must not be null
+     * @throws NTConfigException if the file cannot be read
+     */
+    private void read(@NotNull FileConfig fileConfig) throws NTConfigException {
+        read(fileConfig, false);
+    }
+
+    /**
+     * Reads the file of the file configuration, returning the bytes it was parsed from when they were
+     * read as a whole.
+     *
+     * @param fileConfig  the file configuration to load; must not be null
+     * @param keepContent whether the content is needed by the caller, e.g. for an asynchronous backup
+     * @return the content of the file, or null if it was parsed without being read into an array
+     * @throws NTConfigException if the file cannot be read
+     */
+    private byte @Nullable [] read(@NotNull FileConfig fileConfig, boolean keepContent) throws NTConfigException {
+        Path path = fileConfig.getNioPath();
+        if (!Files.isRegularFile(path)) {
+            fileConfig.load();
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            // Read before the content, so that a change made while reading is never attributed to it
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long size = attributes.size();
+            if (!keepContent && size >= mappedReadThreshold && size <= Integer.MAX_VALUE) {
+                readMapped(fileConfig, path, attributes, start);
+                return null;
+            }
+            // Binary formats cannot go through the file configuration, which decodes the file as text
+            boolean binary = fileConfig.configFormat() instanceof BinaryConfigFormat;
+            if (!(skipUnchangedWrites || keepContent || binary || snapshotCache != null)) {
+                // Parsed while it is read, so the read duration includes parsing
+                fileConfig.load();
+                metrics.fileRead(path, size, System.nanoTime() - start);
+                return null;
+            }
+
+            byte[] content = Files.readAllBytes(path);
+            metrics.fileRead(path, content.length, System.nanoTime() - start);
+            ContentHashCache.Fingerprint fingerprint = skipUnchangedWrites ? contentHashes.remember(path, attributes, content)
+                    : snapshotCache != null ? ContentHashCache.fingerprint(attributes, content) : null;
+            parse(fileConfig, path, fingerprint, ByteBuffer.wrap(content));
+            return content;
+        } catch (IOException e) {
+            throw new NTConfigException("Failed to read configuration file " + path, e);
+        }
+    }
+
+    /**
+     * Reads a large file by mapping it in memory and decoding it straight from the mapped buffer,
+     * so that its content is never copied to a heap array.
+     *
+     * @param fileConfig the file configuration to load; must not be null
+     * @param path       the file to read; must not be null
+     * @param attributes the attributes of the file, read before mapping it
+     * @param start      when the read started, for metrics
+     * @throws IOException       if the file cannot be mapped
+     * @throws NTConfigException if the file is truncated while it is mapped
+     */
+    private void readMapped(@NotNull FileConfig fileConfig, @NotNull Path path, @NotNull BasicFileAttributes attributes, long start)
+            throws IOException, NTConfigException {
+        MappedByteBuffer buffer;
+        // The mapping stays valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, attributes.size());
+        }
+        metrics.fileRead(path, attributes.size(), System.nanoTime() - start);
+        try {
+            ContentHashCache.Fingerprint fingerprint = skipUnchangedWrites ? contentHashes.remember(path, attributes, buffer)
+                    : snapshotCache != null ? ContentHashCache.fingerprint(attributes, buffer) : null;
+            parse(fileConfig, path, fingerprint, buffer);
+        } catch (InternalError e) {
+            // Accessing a page past the end of a file truncated by another process raises an InternalError
+            throw new NTConfigException("Configuration file " + path + " was truncated while it was read", e);
+        }
+    }
+
+    /**
+     * Fills the file configuration from the snapshot of the file when it still matches, or by parsing
+     * the given content otherwise. Text formats decode the content as UTF-8, binary formats parse the
+     * bytes directly.
+     *
+     * @param fileConfig  the file configuration to load; must not be null
+     * @param path        the file being read; must not be null
+     * @param fingerprint the fingerprint of the content, required when a snapshot cache is set
+     * @param content     the content of the file; must not be null
+     */
+    private void parse(@NotNull FileConfig fileConfig, @NotNull Path path, ContentHashCache.@Nullable Fingerprint fingerprint,
+                       @NotNull ByteBuffer content) {
+        long start = System.nanoTime();
+        if (snapshotCache != null && fingerprint != null && snapshotCache.load(path, fingerprint, fileConfig)) {
+            metrics.fileParsed(path, System.nanoTime() - start);
+            return;
+        }
+        if (fileConfig.configFormat() instanceof BinaryConfigFormat binary)
+            binary.parse(content, fileConfig);
+        else
+            fileConfig.configFormat().createParser().parse(new ByteBufferReader(content, StandardCharsets.UTF_8), fileConfig, ParsingMode.REPLACE);
+        metrics.fileParsed(path, System.nanoTime() - start);
+        if (snapshotCache != null && fingerprint != null)
+            snapshotCache.store(path, fingerprint, fileConfig);
     }
 
     /**
@@ -175,8 +553,11 @@ public class NTConfig {
      */
     public <T> @Nullable T load(@NotNull Path path, @NotNull T instance) throws RuntimeException {
         try (FileConfig fileConfig = FileConfig.builder(path).sync().build()) {
-            fileConfig.load();
+            ConfigLoadEvent event = new ConfigLoadEvent();
+            event.begin();
+            byte[] content = read(fileConfig, false);
             loadFromConfig(fileConfig, instance);
+            commitLoad(event, path, content, instance.getClass());
             return instance;
         }
     }
@@ -210,17 +591,24 @@ public class NTConfig {
      * @throws RuntimeException if the instance of the class cannot be created, or any errors occur during the deserialization process
      */
     public <T> @NotNull T load(@NotNull FileConfig fileConfig, @NotNull Class<T> clazz) throws RuntimeException {
-        T instance;
-        try {
-            instance = clazz.getDeclaredConstructor().newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create instance of class: " + clazz.getName(), e);
-        }
-        fileConfig.load();
+        ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
+        T instance = metadataCache.get(clazz).newInstance();
+        byte[] content = read(fileConfig, false);
         loadFromConfig(fileConfig, instance);
+        commitLoad(event, fileConfig.getNioPath(), content, clazz);
         return instance;
     }
 
+    private void commitLoad(@NotNull ConfigLoadEvent event, @NotNull Path path, byte @Nullable [] content, @NotNull Class<?> type) {
+        if (!event.shouldCommit()) return;
+        event.path = path.toString();
+        event.format = extension(path);
+        event.size = content != null ? content.length : sizeOf(path);
+        event.configClass = type;
+        event.commit();
+    }
+
     /**
      * Loads configuration data from the specified {@link FileConfig} into the given instance.
      * The method determines the appropriate loading mechanism based on the type of the instance provided.
@@ -237,7 +625,9 @@ public class NTConfig {
             saveable.load(fileConfig);
         else {
             try {
+                long start = System.nanoTime();
                 this.serdeContext.getDeserializer().deserializeFields(fileConfig, instance);
+                metrics.deserialized(instance.getClass(), System.nanoTime() - start);
             } catch (SerdeException e) {
                 throw new NTConfigException(SerdeErrorFormatter.buildSerdeMessage("deserialize", instance.getClass().getName(), e), e);
             }
@@ -255,6 +645,20 @@ public class NTConfig {
      */
     public <T, R> void registerTypeAdapter(@NotNull TypeAdapter<T, R> adapter) {
         this.serdeContext.registerTypeAdapter(adapter);
+        metadataCache.invalidate();
+    }
+
+    /**
+     * Enables {@link Lazy} sections. Fields declared as {@code Lazy<Section>} then keep the raw
+     * section of the file when a configuration is loaded, and only deserialize it the first time
+     * {@link Lazy#get()} is called. Sections that are never accessed cost neither deserialization
+     * time nor the heap of their object graph, and are saved back from their raw form. Calling this
+     * method again has no effect.
+     */
+    public synchronized void enableLazySections() {
+        if (lazySections) return;
+        lazySections = true;
+        registerTypeAdapter(new LazyTypeAdapter(serdeContext, type -> metadataCache.get(type).newInstance()));
     }
 
     /**
@@ -271,6 +675,17 @@ public class NTConfig {
         return this.serdeContext;
     }
 
+    /**
+     * Returns the cache of per-class metadata used by this NTConfig. It is invalidated whenever the
+     * serialization context changes, i.e. by {@link #setNamingStrategy(NamingStrategy)} and
+     * {@link #registerTypeAdapter(TypeAdapter)}.
+     *
+     * @return the metadata cache; never null
+     */
+    public @NotNull ConfigMetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
     /**
      * Registers a configuration format with its associated file extensions.
      *
@@ -283,6 +698,18 @@ public class NTConfig {
         formatRegistry.register(form, extensions);
     }
 
+    /**
+     * Registers a version probe for the given file extensions. Format modules register a probe
+     * for their format next to the format itself.
+     *
+     * @param probe      the probe reading the version key of files with these extensions; must not be null
+     * @param extensions the file extensions handled by the probe
+     * @see #probeVersion(Path, Class)
+     */
+    public void registerVersionProbe(@NotNull VersionProbe probe, @NotNull String... extensions) {
+        formatRegistry.registerVersionProbe(probe, extensions);
+    }
+
     /**
      * Sets the naming strategy to be used by both the object serializer and object deserializer.
      *
@@ -292,6 +719,7 @@ public class NTConfig {
         this.serdeContext.getSerializer().setNamingStrategy(strategy);
         this.serdeContext.getDeserializer().setNamingStrategy(strategy);
         this.namingStrategy = strategy;
+        metadataCache.invalidate();
     }
 
     /**
@@ -320,42 +748,160 @@ public class NTConfig {
      */
     public <T> ConfigMigrationManager.MigrationResult<T> migrateAndLoad(@NotNull Path path, @NotNull Class<T> clazz, @NotNull T currentTemplate,
                                                                         @Nullable MergeStrategy strategy) {
+        return migrateAndLoad(path, clazz, currentTemplate, strategy, false);
+    }
+
+    /**
+     * Loads a configuration with raw migration and default-merge support, reading the file at most
+     * once and writing it at most once.
+     * <p>
+     * The parsed {@link FileConfig} is kept open for the whole call and reused for the write, so
+     * that no second file configuration is built and the file is never parsed again.
+     *
+     * @param path            the configuration file path
+     * @param clazz           the configuration class
+     * @param currentTemplate the current configuration template with defaults
+     * @param strategy        the merge strategy (null to use default)
+     * @param alwaysSave      whether to save the result even if nothing was migrated or merged
+     * @param <T>             the configuration type
+     * @return the migration result containing the loaded/migrated configuration
+     */
+    private <T> ConfigMigrationManager.MigrationResult<T> migrateAndLoad(@NotNull Path path, @NotNull Class<T> clazz, @NotNull T currentTemplate,
+                                                                         @Nullable MergeStrategy strategy, boolean alwaysSave) {
+        ConfigMigrationEvent event = new ConfigMigrationEvent();
+        event.begin();
         if (!Files.exists(path)) {
-            try (var fileConfig = save(path, currentTemplate)) {
-                return new ConfigMigrationManager.MigrationResult<>(currentTemplate, false, null,
-                        VersionUtils.extractVersion(currentTemplate), null);
+            try (FileConfig fileConfig = FileConfig.builder(path).sync().build()) {
+                boolean written = save(fileConfig, currentTemplate, skipUnchangedWrites);
+                return commitMigration(event, path, 0, clazz, new ConfigMigrationManager.MigrationResult<>(currentTemplate, false, null,
+                        VersionUtils.extractVersion(currentTemplate), null, written));
             }
         }
 
         if (strategy == null) strategy = migrationManager.getDefaultMergeStrategy();
 
-        FileConfig fileConfig = FileConfig.builder(path).sync().build();
-        fileConfig.load();
-        fileConfig.close();
+        try (FileConfig fileConfig = FileConfig.builder(path).sync().build()) {
+            byte[] content = read(fileConfig, migrationManager.getBackupExecutor() != null && migrationManager.getBackupManager().enabled());
+            // Taken before the file is rewritten, and only when recording, so the read path stays the same
+            long size = content != null ? content.length : event.isEnabled() ? sizeOf(path) : 0;
 
-        var rawResult = migrationManager.migrateRaw(path, fileConfig, clazz, currentTemplate, strategy, namingStrategy);
+            var rawResult = migrationManager.migrateRaw(path, fileConfig, clazz, currentTemplate, strategy, namingStrategy, content);
 
-        Config templateConfig = Config.inMemory();
-        serializeToConfig(templateConfig, currentTemplate);
+            Config templateConfig = templateTree(currentTemplate);
 
-        Config mergedForLoad = strategy == MergeStrategy.OVERRIDE ? templateConfig : configTreeMerger.mergeWithDefaults(templateConfig, fileConfig);
+            Config mergedForLoad = strategy == MergeStrategy.OVERRIDE ? templateConfig : configTreeMerger.layer(templateConfig, fileConfig);
 
-        T instance = newInstance(clazz);
-        loadFromMergedConfig(fileConfig, mergedForLoad, instance);
+            T instance = metadataCache.get(clazz).newInstance();
+            loadFromMergedConfig(fileConfig, mergedForLoad, instance);
 
-        boolean mergedMissing = false;
-        if (strategy == MergeStrategy.MERGE_MISSING_ONLY) {
-            var mergeResult = configTreeMerger.mergeMissingOnly(fileConfig, templateConfig);
-            mergedMissing = mergeResult.wasMerged();
+            boolean mergedMissing = false;
+            if (strategy == MergeStrategy.MERGE_MISSING_ONLY) {
+                var mergeResult = configTreeMerger.mergeMissingOnly(fileConfig, templateConfig);
+                mergedMissing = mergeResult.wasMerged();
+            }
+
+            boolean shouldSave = rawResult.wasMigrated() || mergedMissing || strategy == MergeStrategy.OVERRIDE;
+            // The file is only rewritten once its backup is on disk
+            Path backupPath = rawResult.awaitBackup();
+            boolean written = false;
+            if (shouldSave || alwaysSave) {
+                // Serialize into the already loaded file config instead of building a new one
+                fileConfig.clear();
+                if (fileConfig instanceof CommentedConfig commentedConfig)
+                    commentedConfig.clearComments();
+                written = save(fileConfig, strategy == MergeStrategy.OVERRIDE ? currentTemplate : instance, skipUnchangedWrites);
+            }
+
+            return commitMigration(event, path, size, clazz, new ConfigMigrationManager.MigrationResult<>(instance, shouldSave,
+                    rawResult.oldVersion(), rawResult.newVersion(), backupPath, written));
         }
+    }
 
-        boolean shouldSave = rawResult.wasMigrated() || mergedMissing || strategy == MergeStrategy.OVERRIDE;
-        if (shouldSave) {
-            var saved = strategy == MergeStrategy.OVERRIDE ? save(path, currentTemplate) : save(path, instance);
-            saved.close();
+    private <T> ConfigMigrationManager.@NotNull MigrationResult<T> commitMigration(@NotNull ConfigMigrationEvent event, @NotNull Path path,
+                                                                                   long size, @NotNull Class<T> clazz,
+                                                                                   ConfigMigrationManager.@NotNull MigrationResult<T> result) {
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.format = extension(path);
+            event.size = size;
+            event.configClass = clazz;
+            event.fromVersion = result.oldVersion() != null ? result.oldVersion().getVersion() : null;
+            event.toVersion = result.newVersion() != null ? result.newVersion().getVersion() : null;
+            event.migrated = result.wasMigrated();
+            event.written = result.wasWritten();
+            event.commit();
         }
+        return result;
+    }
+
+    /**
+     * Reads the version stored in a configuration file.
+     * <p>
+     * When a {@link VersionProbe} is registered for the file extension, only the beginning of the
+     * file needed to find the version key is read and no config tree is built. Otherwise, or when
+     * the probe cannot decide, the file is parsed.
+     *
+     * @param path  the configuration file path
+     * @param clazz the configuration class declaring the {@code @ConfigVersion} field
+     * @return the stored version, or null if the class is not versioned or the file has no version key
+     * @throws NTConfigException if the file cannot be read or holds an invalid version
+     */
+    public @Nullable MigrationVersion probeVersion(@NotNull Path path, @NotNull Class<?> clazz) throws NTConfigException {
+        ConfigClassMetadata metadata = metadataCache.get(clazz);
+        String key = metadata.versionKey(this::resolveVersionKey);
+        if (key == null) return null;
+
+        Object value;
+        VersionProbe probe = formatRegistry.getVersionProbe(extension(path));
+        VersionProbe.Result result = VersionProbe.Result.unknown();
+        if (probe != null) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                result = probe.probe(reader, key);
+            } catch (IOException e) {
+                throw new NTConfigException("Failed to read configuration file " + path, e);
+            }
+        }
+        switch (result.status()) {
+            case FOUND -> value = result.value();
+            case ABSENT -> value = null;
+            default -> {
+                try (FileConfig fileConfig = FileConfig.builder(path).sync().build()) {
+                    read(fileConfig);
+                    value = fileConfig.valueMap().get(key);
+                }
+            }
+        }
+
+        try {
+            return value != null ? VersionUtils.convertToConfigVersion(value) : null;
+        } catch (IllegalArgumentException e) {
+            throw new NTConfigException("Invalid version in configuration file " + path, e);
+        }
+    }
+
+    /**
+     * Returns whether a configuration file is already at the version of the template, meaning that
+     * {@link #migrateAndLoad(Path, Class, Object)} would not run any migration step on it.
+     * The version is read with {@link #probeVersion(Path, Class)}.
+     *
+     * @param path            the configuration file path
+     * @param clazz           the configuration class
+     * @param currentTemplate the current configuration template
+     * @param <T>             the configuration type
+     * @return true if the file exists and does not need to be migrated
+     * @throws NTConfigException if the file cannot be read or holds an invalid version
+     */
+    public <T> boolean isUpToDate(@NotNull Path path, @NotNull Class<T> clazz, @NotNull T currentTemplate) throws NTConfigException {
+        if (!Files.exists(path)) return false;
+
+        MigrationVersion defaultVersion = metadataCache.get(clazz).defaultVersion();
+        MigrationVersion currentVersion = VersionUtils.extractVersion(currentTemplate);
+        if (currentVersion == null) currentVersion = defaultVersion;
+        if (currentVersion == null) return true;
 
-        return new ConfigMigrationManager.MigrationResult<>(instance, shouldSave, rawResult.oldVersion(), rawResult.newVersion(), rawResult.backupPath());
+        MigrationVersion storedVersion = probeVersion(path, clazz);
+        if (storedVersion == null) storedVersion = defaultVersion != null ? defaultVersion : MigrationVersion.of(1);
+        return storedVersion.isEqualTo(currentVersion);
     }
 
     /**
@@ -383,11 +929,8 @@ public class NTConfig {
      * @return the migration result containing the loaded/migrated configuration
      */
     public <T> ConfigMigrationManager.MigrationResult<T> loadAndUpdate(@NotNull Path path, @NotNull Class<T> clazz, @NotNull T currentTemplate, MergeStrategy strategy) {
-        ConfigMigrationManager.MigrationResult<T> result = migrateAndLoad(path, clazz, currentTemplate, strategy);
         // Always save to ensure a file is up to date (comments, formatting, etc.)
-        var fileConfig = save(path, result.config());
-        fileConfig.close();
-        return result;
+        return migrateAndLoad(path, clazz, currentTemplate, strategy, true);
     }
 
     /**
@@ -403,6 +946,405 @@ public class NTConfig {
         return loadAndUpdate(path, clazz, currentTemplate, null);
     }
 
+    /**
+     * Asynchronously loads a configuration file into a new instance of the specified class
+     * on the {@linkplain #setAsyncExecutor(Executor) async executor}.
+     *
+     * @param <T>   the type of the configuration object
+     * @param path  the path to the configuration file; must not be null
+     * @param clazz the class of the type that the configuration will be deserialized into; must not be null
+     * @return a future completed with the loaded instance, or exceptionally if loading fails
+     * @see #load(Path, Class)
+     */
+    public <T> @NotNull CompletableFuture<T> loadAsync(@NotNull Path path, @NotNull Class<T> clazz) {
+        return CompletableFuture.supplyAsync(() -> load(path, clazz), asyncExecutor);
+    }
+
+    /**
+     * Asynchronously serializes and saves a configuration object on the
+     * {@linkplain #setAsyncExecutor(Executor) async executor}.
+     * <p>
+     * The configuration object must not be modified until the returned future completes.
+     *
+     * @param <T>    the type of the configuration object
+     * @param path   the path to the configuration file; must not be null
+     * @param config the configuration object to serialize and save; must not be null
+     * @return a future completed with the file configuration used for saving, or exceptionally if saving fails
+     * @see #save(Path, Object)
+     */
+    public <T> @NotNull CompletableFuture<FileConfig> saveAsync(@NotNull Path path, @NotNull T config) {
+        return CompletableFuture.supplyAsync(() -> save(path, config), asyncExecutor);
+    }
+
+    /**
+     * Asynchronously loads a configuration with raw migration and default-merge support on the
+     * {@linkplain #setAsyncExecutor(Executor) async executor}.
+     *
+     * @param path            the configuration file path
+     * @param clazz           the configuration class
+     * @param currentTemplate the current configuration template with defaults
+     * @param strategy        the merge strategy (null to use default)
+     * @param <T>             the configuration type
+     * @return a future completed with the migration result, or exceptionally if loading or migration fails
+     * @see #migrateAndLoad(Path, Class, Object, MergeStrategy)
+     */
+    public <T> @NotNull CompletableFuture<ConfigMigrationManager.MigrationResult<T>> migrateAndLoadAsync(@NotNull Path path, @NotNull Class<T> clazz,
+                                                                                                        @NotNull T currentTemplate,
+                                                                                                        @Nullable MergeStrategy strategy) {
+        return CompletableFuture.supplyAsync(() -> migrateAndLoad(path, clazz, currentTemplate, strategy), asyncExecutor);
+    }
+
+    /**
+     * Asynchronously loads a configuration with raw migration support using the default merge strategy.
+     *
+     * @param path            the configuration file path
+     * @param clazz           the configuration class
+     * @param currentTemplate the current configuration template with defaults
+     * @param <T>             the configuration type
+     * @return a future completed with the migration result, or exceptionally if loading or migration fails
+     */
+    public <T> @NotNull CompletableFuture<ConfigMigrationManager.MigrationResult<T>> migrateAndLoadAsync(@NotNull Path path, @NotNull Class<T> clazz,
+                                                                                                        @NotNull T currentTemplate) {
+        return migrateAndLoadAsync(path, clazz, currentTemplate, null);
+    }
+
+    /**
+     * Loads many configuration files in parallel, using one concurrent load per available processor.
+     *
+     * @param files the files to load, with the class each file is deserialized into
+     * @return the per-file results and failures; never null
+     * @see #loadAll(Map, int)
+     */
+    public @NotNull BulkLoadResult<Object> loadAll(@NotNull Map<Path, Class<?>> files) {
+        return loadAll(files, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads many configuration files in parallel on the {@linkplain #setAsyncExecutor(Executor) async executor}.
+     * Every file is loaded with {@link #load(Path, Class)}; a failing file is reported in the result and
+     * does not stop the other loads.
+     *
+     * @param files       the files to load, with the class each file is deserialized into
+     * @param parallelism the maximum number of files loaded at the same time
+     * @return the per-file results and failures; never null
+     * @throws IllegalArgumentException if {@code parallelism} is lower than 1
+     */
+    public @NotNull BulkLoadResult<Object> loadAll(@NotNull Map<Path, Class<?>> files, int parallelism) throws IllegalArgumentException {
+        return loadInParallel(files.keySet(), path -> load(path, files.get(path)), parallelism);
+    }
+
+    /**
+     * Loads every configuration file of a directory whose extension has a registered format,
+     * using one concurrent load per available processor.
+     *
+     * @param directory the directory to load, not recursively
+     * @param clazz     the class every file is deserialized into
+     * @param <T>       the configuration type
+     * @return the per-file results and failures; never null
+     * @throws NTConfigException if the directory cannot be listed
+     */
+    public <T> @NotNull BulkLoadResult<T> loadDirectory(@NotNull Path directory, @NotNull Class<T> clazz) throws NTConfigException {
+        return loadDirectory(directory, clazz, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Loads every configuration file of a directory whose extension has a registered format.
+     *
+     * @param directory   the directory to load, not recursively
+     * @param clazz       the class every file is deserialized into
+     * @param parallelism the maximum number of files loaded at the same time
+     * @param <T>         the configuration type
+     * @return the per-file results and failures; never null
+     * @throws NTConfigException        if the directory cannot be listed
+     * @throws IllegalArgumentException if {@code parallelism} is lower than 1
+     */
+    public <T> @NotNull BulkLoadResult<T> loadDirectory(@NotNull Path directory, @NotNull Class<T> clazz, int parallelism)
+            throws NTConfigException, IllegalArgumentException {
+        return loadInParallel(listConfigFiles(directory), path -> load(path, clazz), parallelism);
+    }
+
+    /**
+     * Migrates and loads every configuration file of a directory whose extension has a registered format,
+     * using one concurrent migration per available processor.
+     *
+     * @param directory       the directory to migrate, not recursively
+     * @param clazz           the configuration class
+     * @param currentTemplate the current configuration template with defaults
+     * @param <T>             the configuration type
+     * @return the per-file outcomes with counts and timings; never null
+     * @throws NTConfigException if the directory cannot be listed
+     * @see #migrateDirectory(Path, Class, Object, int)
+     */
+    public <T> @NotNull MigrationReport migrateDirectory(@NotNull Path directory, @NotNull Class<T> clazz, @NotNull T currentTemplate)
+            throws NTConfigException {
+        return migrateDirectory(directory, clazz, currentTemplate, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Migrates and loads every configuration file of a directory whose extension has a registered format,
+     * in parallel on the {@linkplain #setAsyncExecutor(Executor) async executor}. Every file goes through
+     * {@link #migrateAndLoad(Path, Class, Object)}; a failing file is reported in the report and does not
+     * stop the other migrations.
+     *
+     * @param directory       the directory to migrate, not recursively
+     * @param clazz           the configuration class
+     * @param currentTemplate the current configuration template with defaults
+     * @param parallelism     the maximum number of files migrated at the same time
+     * @param <T>             the configuration type
+     * @return the per-file outcomes with counts and timings; never null
+     * @throws NTConfigException        if the directory cannot be listed
+     * @throws IllegalArgumentException if {@code parallelism} is lower than 1
+     */
+    public <T> @NotNull MigrationReport migrateDirectory(@NotNull Path directory, @NotNull Class<T> clazz, @NotNull T currentTemplate,
+                                                         int parallelism) throws NTConfigException, IllegalArgumentException {
+        List<Path> files = listConfigFiles(directory);
+        long start = System.nanoTime();
+        Map<Path, CompletableFuture<MigrationReport.Entry>> futures = submitInParallel(files, path -> {
+            long fileStart = System.nanoTime();
+            try {
+                var result = migrateAndLoad(path, clazz, currentTemplate);
+                // wasMigrated is also true for files that only needed saving; only a version change means steps ran
+                MigrationVersion from = result.oldVersion();
+                MigrationVersion to = result.newVersion();
+                boolean migrated = from != null && to != null && !from.isEqualTo(to);
+                return new MigrationReport.Entry(path, migrated, from, to, result.backupPath(), result.wasWritten(), null,
+                        Duration.ofNanos(System.nanoTime() - fileStart));
+            } catch (RuntimeException e) {
+                return new MigrationReport.Entry(path, e, Duration.ofNanos(System.nanoTime() - fileStart));
+            }
+        }, parallelism);
+
+        List<MigrationReport.Entry> entries = new ArrayList<>(futures.size());
+        for (var entry : futures.entrySet()) {
+            try {
+                entries.add(entry.getValue().join());
+            } catch (CompletionException | CancellationException e) {
+                // Errors that are not exceptions and cancelled tasks, reported like the other failures
+                entries.add(new MigrationReport.Entry(entry.getKey(), e.getCause() != null ? e.getCause() : e, Duration.ZERO));
+            }
+        }
+        return new MigrationReport(Collections.unmodifiableList(entries), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Returns the executor used by the asynchronous load and save methods.
+     *
+     * @return the async executor
+     */
+    public @NotNull Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * Sets the executor used by the asynchronous load and save methods.
+     * By default, every task runs on its own virtual thread.
+     *
+     * @param executor the executor to use, or null to restore the virtual thread executor
+     */
+    public void setAsyncExecutor(@Nullable Executor executor) {
+        this.asyncExecutor = executor != null ? executor : VIRTUAL_THREAD_EXECUTOR;
+    }
+
+    /**
+     * Returns whether files are saved atomically.
+     *
+     * @return true if saves go through a temporary file that replaces the target
+     */
+    public boolean isAtomicSaves() {
+        return atomicSaves;
+    }
+
+    /**
+     * Enables or disables atomic saves. When enabled, every save writes the configuration to a
+     * temporary file next to the target and renames it over the target, so that a crash during the
+     * write never leaves a truncated file behind. Disabled by default.
+     *
+     * @param atomicSaves true to save files atomically
+     * @see #setSaveDurability(SaveDurability)
+     */
+    public void setAtomicSaves(boolean atomicSaves) {
+        this.atomicSaves = atomicSaves;
+    }
+
+    /**
+     * Returns whether saves stream the rendered configuration to the file.
+     *
+     * @return true if saves are streamed
+     */
+    public boolean isStreamingSaves() {
+        return streamingSaves;
+    }
+
+    /**
+     * Enables or disables streaming saves. When enabled, the format writer renders the configuration
+     * into a reusable direct buffer that is written to the file channel each time it fills up, instead
+     * of rendering the whole file to a string first. This keeps the memory needed to save a large
+     * configuration independent of its size. When unchanged writes are skipped, the configuration is
+     * rendered twice: once to hash it and, only if it changed, once to write it. Binary formats are
+     * always written straight from their encoded bytes.
+     * <p>
+     * Streamed saves always replace the file atomically, as if {@link #setAtomicSaves(boolean) atomic
+     * saves} were enabled, since a rendering failure after the file was opened would otherwise leave a
+     * partial file. Up to four buffers of 64 KiB are kept for concurrent saves; more concurrent saves
+     * allocate buffers that are released once they are done. Disabled by default.
+     *
+     * @param streamingSaves true to stream saves
+     */
+    public void setStreamingSaves(boolean streamingSaves) {
+        this.streamingSaves = streamingSaves;
+    }
+
+    /**
+     * Returns the size from which files are read through a memory mapping.
+     *
+     * @return the threshold in bytes
+     */
+    public long getMappedReadThreshold() {
+        return mappedReadThreshold;
+    }
+
+    /**
+     * Sets the size from which files are read through a memory mapping. Files at least this large are
+     * mapped with {@link FileChannel#map} and parsed straight from the mapped buffer, which avoids
+     * copying multi-megabyte files to the heap before decoding them. Smaller files are read into an
+     * array, which is cheaper than setting up a mapping. Files whose content must be kept, e.g. for an
+     * asynchronous backup, are never mapped.
+     * <p>
+     * A mapping is only released once it is garbage collected. On Windows, a mapped file cannot be
+     * replaced or deleted until then, so a later atomic save of the same file may fail: mapping is
+     * therefore disabled by default there. If another process truncates a file while it is mapped,
+     * the read fails with an {@link NTConfigException}. Defaults to 1 MiB, or {@link Long#MAX_VALUE}
+     * on Windows.
+     *
+     * @param mappedReadThreshold the threshold in bytes, or {@link Long#MAX_VALUE} to never map files
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public void setMappedReadThreshold(long mappedReadThreshold) throws IllegalArgumentException {
+        if (mappedReadThreshold < 0)
+            throw new IllegalArgumentException("Mapped read threshold must not be negative: " + mappedReadThreshold);
+        this.mappedReadThreshold = mappedReadThreshold;
+    }
+
+    /**
+     * Returns the cache of parsed trees.
+     *
+     * @return the snapshot cache, or null if parsed trees are not cached
+     */
+    public @Nullable SnapshotCache getSnapshotCache() {
+        return snapshotCache;
+    }
+
+    /**
+     * Sets the cache of parsed trees. When set, every file read by the load and migration methods is
+     * hashed and, if its snapshot still matches its size, modification time and digest, its tree is
+     * decoded from the snapshot instead of being parsed again. Otherwise the file is parsed and its
+     * snapshot replaced. Disabled by default.
+     *
+     * @param snapshotCache the snapshot cache to use, or null to always parse files
+     */
+    public void setSnapshotCache(@Nullable SnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    /**
+     * Returns the metrics receiving timings and counters.
+     *
+     * @return the metrics; never null
+     */
+    public @NotNull ConfigMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics receiving read, parse, deserialization and write timings, and passes them to
+     * the current migration manager for migration, step and backup timings. A migration manager set
+     * afterwards keeps its own metrics. Installing metrics does not change how files are read.
+     *
+     * @param metrics the metrics to use, or null to record nothing
+     */
+    public void setMetrics(@Nullable ConfigMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ConfigMetrics.noop();
+        migrationManager.setMetrics(this.metrics);
+    }
+
+    /**
+     * Returns whether saves are skipped when the file already holds the serialized content.
+     *
+     * @return true if unchanged writes are skipped
+     */
+    public boolean isSkipUnchangedWrites() {
+        return skipUnchangedWrites;
+    }
+
+    /**
+     * Enables or disables skipping unchanged writes. When enabled, the configuration is serialized
+     * in memory and compared with the SHA-256 digest of the file, remembered from the last load or
+     * save, and the file is only written when the content differs. This keeps the modification time
+     * of unchanged files intact, so that file watchers and synchronization tools are not triggered.
+     * Every load then reads the whole file into memory to hash it, and a remembered digest is only
+     * trusted while the size and modification time of the file are unchanged, so a file rewritten by
+     * another process with the same size within the resolution of the file system clock is hashed
+     * again rather than skipped. Disabled by default.
+     *
+     * @see #saveIfChanged(Path, Object)
+     *
+     * @param skipUnchangedWrites true to skip unchanged writes
+     */
+    public void setSkipUnchangedWrites(boolean skipUnchangedWrites) {
+        this.skipUnchangedWrites = skipUnchangedWrites;
+        if (!skipUnchangedWrites)
+            contentHashes.clear();
+    }
+
+    /**
+     * Returns how much of an atomic save is flushed to the storage device.
+     *
+     * @return the save durability
+     */
+    public @NotNull SaveDurability getSaveDurability() {
+        return saveDurability;
+    }
+
+    /**
+     * Sets how much of an atomic save is flushed to the storage device before the save returns.
+     * Only used when {@linkplain #setAtomicSaves(boolean) atomic saves} are enabled.
+     * Defaults to {@link SaveDurability#NONE}.
+     *
+     * @param saveDurability the save durability
+     */
+    public void setSaveDurability(@NotNull SaveDurability saveDurability) {
+        this.saveDurability = saveDurability;
+    }
+
+    /**
+     * Watches a directory and reloads the configuration files registered on the returned watcher
+     * when they change, using a debounce delay of 200 milliseconds.
+     *
+     * @param directory the directory containing the configuration files
+     * @return the watcher; close it to stop watching
+     * @throws NTConfigException if the directory cannot be watched
+     */
+    public @NotNull ConfigWatcher watch(@NotNull Path directory) throws NTConfigException {
+        return watch(directory, DEFAULT_WATCH_DEBOUNCE);
+    }
+
+    /**
+     * Watches a directory and reloads the configuration files registered on the returned watcher
+     * when they change.
+     *
+     * @param directory the directory containing the configuration files
+     * @param debounce  how long a file must stay unchanged before it is reloaded
+     * @return the watcher; close it to stop watching
+     * @throws NTConfigException if the directory cannot be watched
+     */
+    public @NotNull ConfigWatcher watch(@NotNull Path directory, @NotNull Duration debounce) throws NTConfigException {
+        try {
+            return new ConfigWatcher(this, directory, debounce);
+        } catch (IOException e) {
+            throw new NTConfigException("Failed to watch directory " + directory, e);
+        }
+    }
+
     /**
      * Gets the migration manager, creating it if necessary.
      *
@@ -448,14 +1390,115 @@ public class NTConfig {
         return migrationManager.getDefaultMergeStrategy();
     }
 
-    private <T> @NotNull T newInstance(@NotNull Class<T> clazz) {
+    private boolean hasRegisteredExtension(@NotNull Path path) {
+        return formatRegistry.hasExtension(extension(path));
+    }
+
+    private static long sizeOf(@NotNull Path path) {
         try {
-            return clazz.getDeclaredConstructor().newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create instance of class: " + clazz.getName(), e);
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
         }
     }
 
+    private static @NotNull String extension(@NotNull Path path) {
+        String fileName = path.getFileName().toString();
+        int lastDot = fileName.lastIndexOf('.');
+        return lastDot != -1 ? fileName.substring(lastDot + 1) : "";
+    }
+
+    /**
+     * Finds the key under which the version field is serialized, so that naming strategies and
+     * type adapters are honored: a fresh instance with a sentinel version is serialized and the
+     * top-level key holding the sentinel is returned. Falls back to the field name.
+     *
+     * @param metadata the metadata of a versioned configuration class
+     * @return the serialized version key
+     */
+    private @NotNull String resolveVersionKey(@NotNull ConfigClassMetadata metadata) {
+        String fieldName = Objects.requireNonNull(VersionUtils.findVersionField(metadata.type())).getName();
+        try {
+            Object instance = metadata.newInstance();
+            VersionUtils.setVersion(instance, MigrationVersion.of(VERSION_KEY_SENTINEL));
+            Config serialized = Config.inMemory();
+            serializeToConfig(serialized, instance);
+            for (Config.Entry entry : serialized.entrySet()) {
+                Object value = entry.getValue();
+                if (value instanceof Number number && number.longValue() == VERSION_KEY_SENTINEL
+                        || value instanceof String string && string.equals(String.valueOf(VERSION_KEY_SENTINEL)))
+                    return entry.getKey();
+            }
+        } catch (RuntimeException ignored) {
+            // Classes that cannot be instantiated or serialized here use the field name, like migrateRaw does
+        }
+        return fieldName;
+    }
+
+    private @NotNull List<Path> listConfigFiles(@NotNull Path directory) throws NTConfigException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(Files::isRegularFile).filter(this::hasRegisteredExtension).sorted().toList();
+        } catch (IOException e) {
+            throw new NTConfigException("Failed to list configuration directory " + directory, e);
+        }
+    }
+
+    private <R> @NotNull Map<Path, CompletableFuture<R>> submitInParallel(@NotNull Collection<Path> paths, @NotNull Function<Path, R> task,
+                                                                          int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        Semaphore permits = new Semaphore(parallelism);
+        Map<Path, CompletableFuture<R>> futures = new LinkedHashMap<>();
+        for (Path path : paths) {
+            CompletableFuture<R> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        return task.apply(path);
+                    } finally {
+                        permits.release();
+                    }
+                }, asyncExecutor);
+            } catch (RuntimeException e) {
+                // A custom executor that rejects or cancels a task only fails that file
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.put(path, future);
+        }
+        return futures;
+    }
+
+    private <T> @NotNull BulkLoadResult<T> loadInParallel(@NotNull Collection<Path> paths, @NotNull Function<Path, T> loader, int parallelism) {
+        Map<Path, CompletableFuture<T>> futures = submitInParallel(paths, loader, parallelism);
+
+        Map<Path, T> loaded = new LinkedHashMap<>();
+        Map<Path, Throwable> failures = new LinkedHashMap<>();
+        for (var entry : futures.entrySet()) {
+            try {
+                loaded.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException | CancellationException e) {
+                failures.put(entry.getKey(), e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        return new BulkLoadResult<>(Collections.unmodifiableMap(loaded), Collections.unmodifiableMap(failures));
+    }
+
+    /**
+     * Returns the serialized defaults of a template, cached per configuration class and template fingerprint.
+     * The returned tree is shared and must not be modified.
+     *
+     * @param template the template to serialize
+     * @param <T>      the template type
+     * @return the serialized template
+     */
+    private <T> @NotNull Config templateTree(@NotNull T template) throws NTConfigException {
+        return metadataCache.get(template.getClass()).templateTree(template, t -> {
+            Config tree = Config.inMemory();
+            serializeToConfig(tree, t);
+            return tree;
+        });
+    }
+
     private <T> void serializeToConfig(@NotNull Config target, @NotNull T template) throws NTConfigException {
         try {
             serdeContext.getSerializer().serializeFields(template, target);
@@ -472,7 +1515,9 @@ public class NTConfig {
             saveable.load(fileConfig);
         } else {
             try {
+                long start = System.nanoTime();
                 this.serdeContext.getDeserializer().deserializeFields(mergedConfig, instance);
+                metrics.deserialized(instance.getClass(), System.nanoTime() - start);
             } catch (SerdeException e) {
                 throw new NTConfigException(SerdeErrorFormatter.buildSerdeMessage("deserialize", instance.getClass().getName(), e), e);
             }
@@ -0,0 +1,12 @@
+package re.neotamia.config;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.nightconfig.core.file.FileConfig;
+
+/**
+ * Result of a save that only writes the file when its serialized content changed.
+ *
+ * @param fileConfig the file configuration holding the serialized values
+ * @param written    whether the file was written, false if it already had the same content
+ */
+public record SaveResult(@NotNull FileConfig fileConfig, boolean written) {}
@@ -0,0 +1,44 @@
+package re.neotamia.config.backup;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.migration.version.MigrationVersion;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * A backup recorded in the index of a {@link BackupManager}.
+ *
+ * @param configPath the absolute path of the configuration file that was backed up
+ * @param backupPath the path of the backup file, or of the stored object for deduplicated backups
+ * @param version    the version of the configuration when it was backed up, if known
+ * @param createdAt  when the backup was created
+ * @param size       the size of the backup file or stored object in bytes
+ * @param digest     the hex SHA-256 digest of the content for deduplicated backups, null otherwise
+ */
+public record BackupEntry(@NotNull Path configPath, @NotNull Path backupPath, @Nullable MigrationVersion version,
+                          @NotNull Instant createdAt, long size, @Nullable String digest) {
+    /**
+     * Creates an entry for a plain backup file.
+     *
+     * @param configPath the absolute path of the configuration file that was backed up
+     * @param backupPath the path of the backup file
+     * @param version    the version of the configuration when it was backed up, if known
+     * @param createdAt  when the backup was created
+     * @param size       the size of the backup in bytes
+     */
+    public BackupEntry(@NotNull Path configPath, @NotNull Path backupPath, @Nullable MigrationVersion version,
+                       @NotNull Instant createdAt, long size) {
+        this(configPath, backupPath, version, createdAt, size, null);
+    }
+
+    /**
+     * Returns whether the backup is an object of the deduplicated store, possibly shared with other backups.
+     *
+     * @return true if the backup was created with {@link BackupMode#DEDUPLICATE}
+     */
+    public boolean isDeduplicated() {
+        return digest != null;
+    }
+}
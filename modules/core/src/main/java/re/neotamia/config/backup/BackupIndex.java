@@ -0,0 +1,171 @@
+package re.neotamia.config.backup;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.io.AtomicFileWriter;
+import re.neotamia.config.io.SaveDurability;
+import re.neotamia.config.migration.version.MigrationVersion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Index of the backups of a backup directory, stored as a text file in that directory so that
+ * backups can be listed and pruned without scanning the directory.
+ * <p>
+ * Each line holds the creation time, size, version, path relative to the directory, configuration
+ * path and content digest of a backup, separated by tabs, oldest first. New backups are appended;
+ * the file is rewritten only when backups are pruned. The index is loaded on first use and is not thread-safe.
+ */
+final class BackupIndex {
+    static final String FILE_NAME = ".ntconfig-backups.index";
+    private static final String HEADER = "# NTConfig backup index v1";
+
+    private final @NotNull Path directory;
+    private final @NotNull Path file;
+    private @Nullable List<BackupEntry> entries;
+
+    BackupIndex(@NotNull Path directory) {
+        this.directory = directory;
+        this.file = directory.resolve(FILE_NAME);
+    }
+
+    /**
+     * Returns the indexed backups, oldest first.
+     *
+     * @return the live list of entries
+     * @throws IOException if the index cannot be read
+     */
+    @NotNull List<BackupEntry> entries() throws IOException {
+        List<BackupEntry> loaded = entries;
+        if (loaded == null) {
+            loaded = load();
+            entries = loaded;
+        }
+        return loaded;
+    }
+
+    /**
+     * Appends a backup to the index.
+     *
+     * @param entry the new backup
+     * @throws IOException if the index cannot be written
+     */
+    void append(@NotNull BackupEntry entry) throws IOException {
+        List<BackupEntry> current = entries();
+        StringBuilder lines = new StringBuilder();
+        if (!Files.exists(file))
+            lines.append(HEADER).append('\n');
+        appendLine(lines, entry);
+        Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        current.add(entry);
+    }
+
+    /**
+     * Replaces the content of the index.
+     *
+     * @param remaining the backups to keep, oldest first
+     * @throws IOException if the index cannot be written
+     */
+    void rewrite(@NotNull Collection<BackupEntry> remaining) throws IOException {
+        StringBuilder lines = new StringBuilder(HEADER).append('\n');
+        for (BackupEntry entry : remaining) {
+            appendLine(lines, entry);
+        }
+        AtomicFileWriter.write(file, SaveDurability.NONE, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.append(lines);
+            writer.flush();
+        });
+        entries = new ArrayList<>(remaining);
+    }
+
+    private @NotNull List<BackupEntry> load() throws IOException {
+        List<BackupEntry> loaded = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                BackupEntry entry = parseLine(line);
+                if (entry != null) loaded.add(entry);
+            }
+        } catch (NoSuchFileException e) {
+            // No backup recorded yet; files created before the index existed are not tracked
+        }
+        return loaded;
+    }
+
+    private @Nullable BackupEntry parseLine(@NotNull String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 5 && fields.length != 6) return null;
+        try {
+            Instant createdAt = Instant.ofEpochMilli(Long.parseLong(fields[0]));
+            long size = Long.parseLong(fields[1]);
+            MigrationVersion version = fields[2].isEmpty() ? null : MigrationVersion.of(unescape(fields[2]));
+            Path backupPath = directory.resolve(unescape(fields[3]));
+            Path configPath = Path.of(unescape(fields[4]));
+            String digest = fields.length == 6 && !fields[5].isEmpty() ? fields[5] : null;
+            return new BackupEntry(configPath, backupPath, version, createdAt, size, digest);
+        } catch (RuntimeException e) {
+            // Skip lines damaged by an interrupted append
+            return null;
+        }
+    }
+
+    private void appendLine(@NotNull StringBuilder lines, @NotNull BackupEntry entry) {
+        lines.append(entry.createdAt().toEpochMilli()).append('\t')
+                .append(entry.size()).append('\t')
+                .append(entry.version() != null ? escape(entry.version().getVersion()) : "").append('\t')
+                .append(escape(directory.relativize(entry.backupPath()).toString())).append('\t')
+                .append(escape(entry.configPath().toString())).append('\t')
+                .append(entry.digest() != null ? entry.digest() : "").append('\n');
+    }
+
+    private static @NotNull String escape(@NotNull String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case '\t' -> escaped.append("\\t");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static @NotNull String unescape(@NotNull String value) {
+        if (value.indexOf('\\') < 0) return value;
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                unescaped.append(c);
+                continue;
+            }
+            char escaped = value.charAt(++i);
+            unescaped.append(switch (escaped) {
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                default -> escaped;
+            });
+        }
+        return unescaped.toString();
+    }
+}
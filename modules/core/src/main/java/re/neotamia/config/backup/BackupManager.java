@@ -2,23 +2,61 @@ package re.neotamia.config.backup;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.io.AtomicFileWriter;
+import re.neotamia.config.io.SaveDurability;
+import re.neotamia.config.jfr.ConfigBackupEvent;
 import re.neotamia.config.migration.version.MigrationVersion;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Manages backup creation for configuration files during migration.
- *
- * @param backupDirectory the directory where backups are stored
- * @param enabled         whether backups are enabled
+ * <p>
+ * Backups are recorded in an index file inside the backup directory, which is used to list them
+ * and to apply the {@link BackupRetention retention policy} without scanning the directory. Backup
+ * files created before the index existed are left alone. A backup directory should be managed by a
+ * single backup manager at a time.
+ * <p>
+ * The content of a new backup is flushed to the storage device before it is returned, so the
+ * configuration file can be rewritten right after its backup.
  */
-public record BackupManager(@NotNull Path backupDirectory, boolean enabled) {
-    private static final DateTimeFormatter BACKUP_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+public final class BackupManager {
+    private static final DateTimeFormatter BACKUP_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+
+    private final @NotNull Path backupDirectory;
+    private final boolean enabled;
+    private final @NotNull BackupMode mode;
+    private final @NotNull BackupRetention retention;
+    private final boolean compressed;
+    private final @NotNull BackupIndex index;
+    private final @NotNull BackupObjectStore objectStore;
+
+    /**
+     * Creates a backup manager copying files and keeping every backup.
+     *
+     * @param backupDirectory the directory where backups are stored
+     * @param enabled         whether backups are enabled
+     */
+    public BackupManager(@NotNull Path backupDirectory, boolean enabled) {
+        this(backupDirectory, enabled, BackupMode.COPY, BackupRetention.unlimited());
+    }
 
     /**
      * Creates a backup manager with backups enabled.
@@ -29,16 +67,116 @@ public record BackupManager(@NotNull Path backupDirectory, boolean enabled) {
         this(backupDirectory, true);
     }
 
+    /**
+     * Creates a backup manager.
+     *
+     * @param backupDirectory the directory where backups are stored
+     * @param enabled         whether backups are enabled
+     * @param mode            how backup files are created
+     * @param retention       which backups are kept
+     */
+    public BackupManager(@NotNull Path backupDirectory, boolean enabled, @NotNull BackupMode mode, @NotNull BackupRetention retention) {
+        this(backupDirectory, enabled, mode, retention, false);
+    }
+
+    private BackupManager(@NotNull Path backupDirectory, boolean enabled, @NotNull BackupMode mode, @NotNull BackupRetention retention,
+                          boolean compressed) {
+        this.backupDirectory = backupDirectory;
+        this.enabled = enabled;
+        this.mode = mode;
+        this.retention = retention;
+        this.compressed = compressed;
+        this.index = new BackupIndex(backupDirectory);
+        this.objectStore = new BackupObjectStore(backupDirectory);
+    }
+
+    /**
+     * Returns the directory where backups are stored.
+     *
+     * @return the backup directory
+     */
+    public @NotNull Path backupDirectory() {
+        return backupDirectory;
+    }
+
+    /**
+     * Returns whether backups are enabled.
+     *
+     * @return true if backups are created
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns how backup files are created.
+     *
+     * @return the backup mode
+     */
+    public @NotNull BackupMode mode() {
+        return mode;
+    }
+
+    /**
+     * Returns the retention policy.
+     *
+     * @return the retention policy
+     */
+    public @NotNull BackupRetention retention() {
+        return retention;
+    }
+
+    /**
+     * Returns whether new objects of the deduplicated store are compressed.
+     *
+     * @return true if objects are compressed with gzip
+     */
+    public boolean compressed() {
+        return compressed;
+    }
+
+    /**
+     * Returns a backup manager for the same directory using the given mode.
+     *
+     * @param mode how backup files are created
+     * @return the new backup manager
+     */
+    public @NotNull BackupManager withMode(@NotNull BackupMode mode) {
+        return new BackupManager(backupDirectory, enabled, mode, retention, compressed);
+    }
+
+    /**
+     * Returns a backup manager for the same directory using the given retention policy.
+     *
+     * @param retention which backups are kept
+     * @return the new backup manager
+     */
+    public @NotNull BackupManager withRetention(@NotNull BackupRetention retention) {
+        return new BackupManager(backupDirectory, enabled, mode, retention, compressed);
+    }
+
+    /**
+     * Returns a backup manager for the same directory that compresses new objects of the
+     * deduplicated store with gzip. Only applies to {@link BackupMode#DEDUPLICATE}.
+     *
+     * @param compressed whether new objects are compressed
+     * @return the new backup manager
+     */
+    public @NotNull BackupManager withCompression(boolean compressed) {
+        return new BackupManager(backupDirectory, enabled, mode, retention, compressed);
+    }
+
     /**
      * Creates a backup of the given configuration file.
      *
      * @param configPath the path to the configuration file to backup
      * @param version    the current version of the configuration (optional, for naming)
-     * @return the path to the created backup file, or null if backups are disabled
+     * @return the path to the created backup file, or to the stored object with {@link BackupMode#DEDUPLICATE},
+     * or null if backups are disabled
      * @throws IOException if the backup creation fails
      */
     public @Nullable Path createBackup(@NotNull Path configPath, @Nullable MigrationVersion version) throws IOException {
-        return this.createBackup(configPath, version != null ? "v" + version.getVersion() : null);
+        return this.createBackup(configPath, version != null ? "v" + version.getVersion() : null, version, null);
     }
 
     /**
@@ -50,27 +188,23 @@ public record BackupManager(@NotNull Path backupDirectory, boolean enabled) {
      * @throws IOException if the backup creation fails
      */
     public @Nullable Path createBackup(@NotNull Path configPath, @Nullable String suffix) throws IOException {
-        if (!enabled || !Files.exists(configPath))
-            return null;
-
-        Files.createDirectories(backupDirectory);
-
-        String originalFileName = configPath.getFileName().toString();
-        String timestamp = LocalDateTime.now().format(BACKUP_DATE_FORMAT);
-        String baseName = getFileNameWithoutExtension(originalFileName);
-        String extension = getFileExtension(originalFileName);
-
-        StringBuilder sb = new StringBuilder(baseName);
-        if (suffix != null)
-            sb.append("_").append(suffix);
-        sb.append("_").append(timestamp);
-        sb.append(extension);
-
-        String backupFileName = sb.toString();
-        Path backupPath = backupDirectory.resolve(backupFileName);
-        Files.copy(configPath, backupPath, StandardCopyOption.REPLACE_EXISTING);
+        return this.createBackup(configPath, suffix, null, null);
+    }
 
-        return backupPath;
+    /**
+     * Creates a backup of a configuration file from its content as it was read, so that the file
+     * does not have to be read again. With
+     * {@link BackupMode#LINK}, the content is written to a new file since there is nothing to link.
+     *
+     * @param configPath the path of the configuration file the content was read from
+     * @param content    the content of the configuration file
+     * @param version    the version of the content (optional, for naming)
+     * @return the path to the created backup file, or to the stored object with {@link BackupMode#DEDUPLICATE},
+     * or null if backups are disabled
+     * @throws IOException if the backup creation fails
+     */
+    public @Nullable Path createBackup(@NotNull Path configPath, byte @NotNull [] content, @Nullable MigrationVersion version) throws IOException {
+        return this.createBackup(configPath, version != null ? "v" + version.getVersion() : null, version, content);
     }
 
     /**
@@ -85,14 +219,264 @@ public record BackupManager(@NotNull Path backupDirectory, boolean enabled) {
     }
 
     /**
-     * Restores a configuration file from a backup.
+     * Lists the backups of a configuration file.
+     *
+     * @param configPath the path to the configuration file
+     * @return the backups of the file, oldest first
+     * @throws IOException if the index cannot be read
+     */
+    public @NotNull List<BackupEntry> listBackups(@NotNull Path configPath) throws IOException {
+        Path key = configPath.toAbsolutePath().normalize();
+        List<BackupEntry> backups = new ArrayList<>();
+        synchronized (index) {
+            for (BackupEntry entry : index.entries()) {
+                if (entry.configPath().equals(key)) backups.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(backups);
+    }
+
+    /**
+     * Lists every backup of the backup directory.
+     *
+     * @return the backups, oldest first
+     * @throws IOException if the index cannot be read
+     */
+    public @NotNull List<BackupEntry> listBackups() throws IOException {
+        synchronized (index) {
+            return List.copyOf(index.entries());
+        }
+    }
+
+    /**
+     * Returns the most recent backup of a configuration file.
+     *
+     * @param configPath the path to the configuration file
+     * @return the latest backup, or null if the file has no backup
+     * @throws IOException if the index cannot be read
+     */
+    public @Nullable BackupEntry latestBackup(@NotNull Path configPath) throws IOException {
+        Path key = configPath.toAbsolutePath().normalize();
+        synchronized (index) {
+            List<BackupEntry> entries = index.entries();
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (entries.get(i).configPath().equals(key)) return entries.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Restores a configuration file from a backup, replacing it atomically. The backup may be a file
+     * of the backup directory or an object of the deduplicated store, such as the path returned by
+     * {@link #createBackup(Path, MigrationVersion)} with {@link BackupMode#DEDUPLICATE}, which is
+     * decompressed if needed.
      *
      * @param backupPath the backup file path
      * @param configPath the original configuration file path
      * @throws IOException if the restore fails
      */
     public void restoreBackup(@NotNull Path backupPath, @NotNull Path configPath) throws IOException {
-        Files.copy(backupPath, configPath, StandardCopyOption.REPLACE_EXISTING);
+        if (objectStore.contains(backupPath)) {
+            BackupObjectStore.restore(backupPath, configPath);
+            return;
+        }
+        AtomicFileWriter.write(configPath, SaveDurability.NONE, out -> Files.copy(backupPath, out));
+    }
+
+    /**
+     * Restores a configuration file from an indexed backup, decompressing deduplicated objects if needed.
+     *
+     * @param backup the backup to restore
+     * @throws IOException if the restore fails
+     */
+    public void restoreBackup(@NotNull BackupEntry backup) throws IOException {
+        if (backup.isDeduplicated())
+            BackupObjectStore.restore(backup.backupPath(), backup.configPath());
+        else
+            restoreBackup(backup.backupPath(), backup.configPath());
+    }
+
+    private @Nullable Path createBackup(@NotNull Path configPath, @Nullable String suffix, @Nullable MigrationVersion version,
+                                        byte @Nullable [] content) throws IOException {
+        if (!enabled || content == null && !Files.exists(configPath))
+            return null;
+
+        ConfigBackupEvent event = new ConfigBackupEvent();
+        event.begin();
+        Files.createDirectories(backupDirectory);
+
+        Instant now = Instant.now();
+        Path key = configPath.toAbsolutePath().normalize();
+        if (mode == BackupMode.DEDUPLICATE) {
+            synchronized (index) {
+                BackupObjectStore.StoredObject object = objectStore.store(content != null ? content : Files.readAllBytes(configPath),
+                        compressed, SaveDurability.DATA);
+                record(new BackupEntry(key, object.path(), version, now, object.size(), object.digest()));
+                return commit(event, configPath, object.path(), object.size());
+            }
+        }
+
+        String originalFileName = configPath.getFileName().toString();
+        String timestamp = LocalDateTime.ofInstant(now, ZoneId.systemDefault()).format(BACKUP_DATE_FORMAT);
+        String baseName = getFileNameWithoutExtension(originalFileName);
+        String extension = getFileExtension(originalFileName);
+
+        StringBuilder sb = new StringBuilder(baseName);
+        if (suffix != null)
+            sb.append("_").append(suffix);
+        sb.append("_").append(timestamp);
+        String backupBaseName = sb.toString();
+
+        synchronized (index) {
+            // Backups are never overwritten: a name already taken within the same millisecond gets a counter
+            for (int attempt = 0; ; attempt++) {
+                Path backupPath = backupDirectory.resolve(attempt == 0 ? backupBaseName + extension : backupBaseName + "-" + attempt + extension);
+                long size;
+                try {
+                    size = content != null ? write(content, backupPath) : transfer(configPath, backupPath);
+                } catch (FileAlreadyExistsException e) {
+                    continue;
+                }
+                record(new BackupEntry(key, backupPath, version, now, size));
+                return commit(event, configPath, backupPath, size);
+            }
+        }
+    }
+
+    private @NotNull Path commit(@NotNull ConfigBackupEvent event, @NotNull Path configPath, @NotNull Path backupPath, long size) {
+        if (event.shouldCommit()) {
+            event.path = configPath.toString();
+            event.backupPath = backupPath.toString();
+            event.mode = mode.name();
+            event.size = size;
+            event.commit();
+        }
+        return backupPath;
+    }
+
+    private long transfer(@NotNull Path source, @NotNull Path target) throws IOException {
+        if (mode == BackupMode.LINK) {
+            try {
+                Files.createLink(target, source);
+                return Files.size(target);
+            } catch (FileAlreadyExistsException e) {
+                throw e;
+            } catch (IOException | UnsupportedOperationException e) {
+                // Other file store or no hard link support: copy instead
+            }
+        }
+        return copy(source, target);
+    }
+
+    private static long write(byte @NotNull [] content, @NotNull Path target) throws IOException {
+        FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try (out) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) out.write(buffer);
+            out.force(false);
+            return content.length;
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(target);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private static long copy(@NotNull Path source, @NotNull Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try (out) {
+                long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    long transferred = in.transferTo(position, size - position, out);
+                    if (transferred <= 0) break;
+                    position += transferred;
+                }
+                out.force(false);
+                return position;
+            } catch (IOException | RuntimeException e) {
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Adds a new backup to the index and deletes the backups exceeding the retention policy.
+     */
+    private void record(@NotNull BackupEntry created) throws IOException {
+        List<BackupEntry> entries = index.entries();
+        if (retention.isUnlimited()) {
+            index.append(created);
+            return;
+        }
+
+        List<BackupEntry> candidates = new ArrayList<>(entries);
+        candidates.add(created);
+        Set<BackupEntry> expired = new HashSet<>();
+
+        if (retention.maxCount() > 0) {
+            int remaining = 0;
+            for (BackupEntry entry : candidates) {
+                if (entry.configPath().equals(created.configPath())) remaining++;
+            }
+            for (BackupEntry entry : candidates) {
+                if (remaining <= retention.maxCount()) break;
+                if (entry != created && entry.configPath().equals(created.configPath()) && expired.add(entry)) remaining--;
+            }
+        }
+        if (retention.maxAge() != null) {
+            Instant oldest = created.createdAt().minus(retention.maxAge());
+            for (BackupEntry entry : candidates) {
+                if (entry != created && entry.createdAt().isBefore(oldest)) expired.add(entry);
+            }
+        }
+        if (retention.maxTotalBytes() > 0) {
+            // Deduplicated objects shared by several backups are counted once and freed with their last backup
+            Map<Path, Integer> references = new HashMap<>();
+            long total = 0;
+            for (BackupEntry entry : candidates) {
+                if (!expired.contains(entry) && references.merge(entry.backupPath(), 1, Integer::sum) == 1) total += entry.size();
+            }
+            for (BackupEntry entry : candidates) {
+                if (total <= retention.maxTotalBytes()) break;
+                if (entry != created && expired.add(entry) && references.merge(entry.backupPath(), -1, Integer::sum) == 0)
+                    total -= entry.size();
+            }
+        }
+
+        if (expired.isEmpty()) {
+            index.append(created);
+            return;
+        }
+        Set<Path> referenced = new HashSet<>();
+        for (BackupEntry entry : candidates) {
+            if (!expired.contains(entry)) referenced.add(entry.backupPath());
+        }
+        List<BackupEntry> kept = new ArrayList<>(candidates.size() - expired.size());
+        for (BackupEntry entry : candidates) {
+            if (!expired.contains(entry) || !referenced.contains(entry.backupPath()) && !delete(entry)) kept.add(entry);
+        }
+        index.rewrite(kept);
+    }
+
+    private static boolean delete(@NotNull BackupEntry entry) {
+        try {
+            Files.deleteIfExists(entry.backupPath());
+            return true;
+        } catch (IOException e) {
+            // Keep the entry so that the deletion is retried after the next backup
+            return false;
+        }
     }
 
     private @NotNull String getFileNameWithoutExtension(@NotNull String fileName) {
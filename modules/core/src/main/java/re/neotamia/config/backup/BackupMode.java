@@ -0,0 +1,28 @@
+package re.neotamia.config.backup;
+
+/**
+ * How a backup file is created from the configuration file.
+ */
+public enum BackupMode {
+    /**
+     * Copies the file through {@link java.nio.channels.FileChannel#transferTo}, which lets the
+     * operating system copy in the kernel, or share the blocks on copy-on-write file systems.
+     */
+    COPY,
+    /**
+     * Creates a hard link to the file, so that no data is copied at all. Falls back to {@link #COPY}
+     * when the backup directory is on another file store or hard links are not supported.
+     * <p>
+     * A hard link shares the content of the file, so the configuration file must be replaced rather
+     * than rewritten in place afterwards; {@code NTConfig} always saves files atomically when the
+     * backup manager of its migration manager uses this mode.
+     */
+    LINK,
+    /**
+     * Stores each distinct content once, under its SHA-256 digest, in the {@code objects} directory
+     * of the backup directory; backups of identical files share the same object. Objects can be
+     * compressed with {@link BackupManager#withCompression(boolean)}. Backups are restored with
+     * {@link BackupManager#restoreBackup(BackupEntry)}.
+     */
+    DEDUPLICATE
+}
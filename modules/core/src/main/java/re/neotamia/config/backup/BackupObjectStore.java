@@ -0,0 +1,99 @@
+package re.neotamia.config.backup;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.io.AtomicFileWriter;
+import re.neotamia.config.io.ContentHashCache;
+import re.neotamia.config.io.SaveDurability;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content-addressed store of backup contents. Each distinct content is stored once, under the
+ * SHA-256 digest of its uncompressed bytes, in {@code objects/<first two hex digits>/<digest>};
+ * compressed objects get a {@code .gz} suffix. Backing up a file whose content is already stored
+ * writes nothing but the index entry.
+ */
+final class BackupObjectStore {
+    static final String DIRECTORY_NAME = "objects";
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    private final @NotNull Path directory;
+
+    BackupObjectStore(@NotNull Path backupDirectory) {
+        this.directory = backupDirectory.resolve(DIRECTORY_NAME);
+    }
+
+    /**
+     * Stores content unless an object with the same content already exists.
+     *
+     * @param content    the content to store
+     * @param compressed whether a new object is compressed
+     * @param durability how much of a new object is flushed to the storage device before returning
+     * @return the stored object
+     * @throws IOException if the object cannot be written
+     */
+    @NotNull StoredObject store(byte @NotNull [] content, boolean compressed, @NotNull SaveDurability durability) throws IOException {
+        String digest = HexFormat.of().formatHex(ContentHashCache.digest(content));
+        Path shard = directory.resolve(digest.substring(0, 2));
+
+        // Reuse the object whether or not it was compressed when it was first stored
+        for (Path existing : new Path[]{shard.resolve(digest), shard.resolve(digest + COMPRESSED_SUFFIX)}) {
+            if (Files.exists(existing)) return new StoredObject(existing, digest, Files.size(existing));
+        }
+
+        Path object = shard.resolve(compressed ? digest + COMPRESSED_SUFFIX : digest);
+        AtomicFileWriter.write(object, durability, out -> {
+            if (!compressed) {
+                out.write(content);
+                return;
+            }
+            GZIPOutputStream gzip = new GZIPOutputStream(out);
+            gzip.write(content);
+            gzip.finish();
+        });
+        return new StoredObject(object, digest, Files.size(object));
+    }
+
+    /**
+     * Returns whether a path is an object of this store.
+     *
+     * @param path the path to check
+     * @return true if the path lies in the object directory of this store
+     */
+    boolean contains(@NotNull Path path) {
+        Path objects = directory.toAbsolutePath().normalize();
+        Path candidate = path.toAbsolutePath().normalize();
+        return candidate.startsWith(objects) && !candidate.equals(objects);
+    }
+
+    /**
+     * Writes the content of an object to a configuration file, replacing it atomically.
+     *
+     * @param object     the object file
+     * @param configPath the file to restore
+     * @throws IOException if the object cannot be read or the file cannot be written
+     */
+    static void restore(@NotNull Path object, @NotNull Path configPath) throws IOException {
+        boolean compressed = object.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+        AtomicFileWriter.write(configPath, SaveDurability.NONE, out -> {
+            try (InputStream in = compressed ? new GZIPInputStream(Files.newInputStream(object)) : Files.newInputStream(object)) {
+                in.transferTo(out);
+            }
+        });
+    }
+
+    /**
+     * An object of the store.
+     *
+     * @param path   the object file
+     * @param digest the hex SHA-256 digest of the uncompressed content
+     * @param size   the size of the object file in bytes
+     */
+    record StoredObject(@NotNull Path path, @NotNull String digest, long size) {}
+}
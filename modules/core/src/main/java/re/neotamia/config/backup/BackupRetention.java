@@ -0,0 +1,90 @@
+package re.neotamia.config.backup;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Retention policy of a {@link BackupManager}. Backups exceeding any of the limits are deleted
+ * after each new backup, oldest first; the backup that was just created is always kept.
+ *
+ * @param maxCount      the maximum number of backups kept per configuration file, or 0 for no limit
+ * @param maxAge        the maximum age of a backup, or null for no limit
+ * @param maxTotalBytes the maximum total size of all backups in the directory, or 0 for no limit
+ */
+public record BackupRetention(int maxCount, @Nullable Duration maxAge, long maxTotalBytes) {
+    private static final BackupRetention UNLIMITED = new BackupRetention(0, null, 0);
+
+    /**
+     * Validates the limits.
+     *
+     * @throws IllegalArgumentException if a limit is negative
+     */
+    public BackupRetention {
+        if (maxCount < 0)
+            throw new IllegalArgumentException("Backup count limit must not be negative: " + maxCount);
+        if (maxAge != null && maxAge.isNegative())
+            throw new IllegalArgumentException("Backup age limit must not be negative: " + maxAge);
+        if (maxTotalBytes < 0)
+            throw new IllegalArgumentException("Backup size limit must not be negative: " + maxTotalBytes);
+    }
+
+    /**
+     * Returns the policy keeping every backup.
+     *
+     * @return the unlimited policy
+     */
+    public static @NotNull BackupRetention unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Returns a policy keeping the given number of backups per configuration file.
+     *
+     * @param count the maximum number of backups per configuration file, or 0 for no limit
+     * @return the policy
+     */
+    public static @NotNull BackupRetention keepLast(int count) {
+        return new BackupRetention(count, null, 0);
+    }
+
+    /**
+     * Returns a copy of this policy with the given count limit.
+     *
+     * @param count the maximum number of backups per configuration file, or 0 for no limit
+     * @return the policy
+     */
+    public @NotNull BackupRetention withMaxCount(int count) {
+        return new BackupRetention(count, maxAge, maxTotalBytes);
+    }
+
+    /**
+     * Returns a copy of this policy with the given age limit.
+     *
+     * @param age the maximum age of a backup, or null for no limit
+     * @return the policy
+     */
+    public @NotNull BackupRetention withMaxAge(@Nullable Duration age) {
+        return new BackupRetention(maxCount, age, maxTotalBytes);
+    }
+
+    /**
+     * Returns a copy of this policy with the given total size limit.
+     *
+     * @param bytes the maximum total size of all backups in the directory, or 0 for no limit
+     * @return the policy
+     */
+    public @NotNull BackupRetention withMaxTotalBytes(long bytes) {
+        return new BackupRetention(maxCount, maxAge, bytes);
+    }
+
+    /**
+     * Returns whether this policy keeps every backup.
+     *
+     * @return true if no limit is set
+     */
+    public boolean isUnlimited() {
+        return maxCount == 0 && maxAge == null && maxTotalBytes == 0;
+    }
+}
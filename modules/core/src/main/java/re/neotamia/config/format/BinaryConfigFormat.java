@@ -0,0 +1,37 @@
+package re.neotamia.config.format;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.nightconfig.core.Config;
+import re.neotamia.nightconfig.core.UnmodifiableConfig;
+import re.neotamia.nightconfig.core.io.ParsingException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by configuration formats whose files hold bytes rather than text.
+ * <p>
+ * {@link re.neotamia.config.NTConfig} reads and writes such formats through these methods instead
+ * of decoding the file to characters for the format parser and encoding the output of the format
+ * writer, which would corrupt arbitrary bytes.
+ */
+public interface BinaryConfigFormat {
+    /**
+     * Parses the remaining bytes of a buffer into a config, replacing its content.
+     *
+     * @param input       the bytes to parse; the position of the buffer is advanced
+     * @param destination the config to fill
+     * @throws ParsingException if the bytes are not a valid configuration
+     */
+    void parse(@NotNull ByteBuffer input, @NotNull Config destination) throws ParsingException;
+
+    /**
+     * Writes a config as bytes.
+     *
+     * @param config the config to write
+     * @param output the stream to write to; it is not closed
+     * @throws IOException if the stream cannot be written
+     */
+    void write(@NotNull UnmodifiableConfig config, @NotNull OutputStream output) throws IOException;
+}
@@ -0,0 +1,124 @@
+package re.neotamia.config.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Character reader with one character of lookahead, used by {@link VersionProbe} implementations.
+ * <p>
+ * A leading byte order mark is skipped. The underlying reader is read in small chunks, so a probe
+ * that stops early leaves the rest of the file unread.
+ */
+public final class ProbeReader {
+    /**
+     * Value returned at the end of the content.
+     */
+    public static final int EOF = -1;
+    private static final char BYTE_ORDER_MARK = 0xFEFF;
+
+    private final @NotNull Reader reader;
+    private final char[] buffer = new char[512];
+    private int position;
+    private int limit;
+    private boolean started;
+
+    /**
+     * Wraps a reader.
+     *
+     * @param reader the content to read
+     */
+    public ProbeReader(@NotNull Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next character without consuming it.
+     *
+     * @return the next character, or {@link #EOF}
+     * @throws IOException if the content cannot be read
+     */
+    public int peek() throws IOException {
+        if (position == limit && !fill()) return EOF;
+        return buffer[position];
+    }
+
+    /**
+     * Consumes and returns the next character.
+     *
+     * @return the next character, or {@link #EOF}
+     * @throws IOException if the content cannot be read
+     */
+    public int read() throws IOException {
+        if (position == limit && !fill()) return EOF;
+        return buffer[position++];
+    }
+
+    /**
+     * Skips spaces and tabs.
+     *
+     * @throws IOException if the content cannot be read
+     */
+    public void skipBlanks() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t') read();
+    }
+
+    /**
+     * Skips spaces, tabs and line breaks.
+     *
+     * @throws IOException if the content cannot be read
+     */
+    public void skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\n' || c == '\r') read();
+    }
+
+    /**
+     * Skips the rest of the current line, including the line break.
+     *
+     * @throws IOException if the content cannot be read
+     */
+    public void skipLine() throws IOException {
+        int c;
+        while ((c = read()) != EOF && c != '\n') {
+            // Skip
+        }
+    }
+
+    /**
+     * Reads the rest of the current line, without the line break.
+     *
+     * @return the line, or null at the end of the content
+     * @throws IOException if the content cannot be read
+     */
+    public @Nullable String readLine() throws IOException {
+        if (peek() == EOF) return null;
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = read()) != EOF && c != '\n') {
+            line.append((char) c);
+        }
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') line.setLength(length - 1);
+        return line.toString();
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) return false;
+        position = 0;
+        limit = read;
+        if (!started) {
+            started = true;
+            if (buffer[0] == BYTE_ORDER_MARK) position = 1;
+            if (position == limit) return fill();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+package re.neotamia.config.format;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the value of a single top-level key from a configuration file without parsing the whole file.
+ * <p>
+ * Probes are registered per file extension by the format modules and are used to read the
+ * {@code @ConfigVersion} value of a file, so that files which are already current can be
+ * skipped without building their tree. A probe only has to handle the common layouts of its
+ * format; whenever it is unsure, it returns {@link Result#unknown()} and the caller falls back
+ * to a full parse.
+ */
+@FunctionalInterface
+public interface VersionProbe {
+    /**
+     * Scans the content until the given top-level key is found or cannot appear anymore.
+     *
+     * @param reader the content of the file; the probe reads only as much as it needs
+     * @param key    the serialized name of the version key
+     * @return the probe result; never null
+     * @throws IOException if the content cannot be read
+     */
+    @NotNull Result probe(@NotNull Reader reader, @NotNull String key) throws IOException;
+
+    /**
+     * Outcome of a probe.
+     *
+     * @param status the status of the probe
+     * @param value  the raw value of the key (a {@link String} or a {@link Number}), only set when found
+     */
+    record Result(@NotNull Status status, @Nullable Object value) {
+        private static final Result ABSENT = new Result(Status.ABSENT, null);
+        private static final Result UNKNOWN = new Result(Status.UNKNOWN, null);
+
+        /**
+         * The key was found with a scalar value.
+         *
+         * @param value the raw value, a {@link String} or a {@link Number}
+         * @return the result
+         */
+        public static @NotNull Result found(@NotNull Object value) {
+            return new Result(Status.FOUND, value);
+        }
+
+        /**
+         * The whole top level was scanned and the key is not part of it.
+         *
+         * @return the result
+         */
+        public static @NotNull Result absent() {
+            return ABSENT;
+        }
+
+        /**
+         * The probe could not decide, for instance because of a syntax it does not handle.
+         *
+         * @return the result
+         */
+        public static @NotNull Result unknown() {
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Status of a probe.
+     */
+    enum Status {
+        /**
+         * The key was found.
+         */
+        FOUND,
+        /**
+         * The key is not present at the top level.
+         */
+        ABSENT,
+        /**
+         * The probe could not decide; the file must be parsed.
+         */
+        UNKNOWN
+    }
+}
@@ -0,0 +1,136 @@
+package re.neotamia.config.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+/**
+ * Replaces files atomically: content is written to a temporary file next to the target, which is
+ * then renamed over it. Readers see either the previous file or the complete new one, never a
+ * truncated file.
+ */
+public final class AtomicFileWriter {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Utility class.
+     */
+    private AtomicFileWriter() {}
+
+    /**
+     * Writes a file atomically.
+     *
+     * @param target     the file to create or replace
+     * @param durability how much of the write is flushed to the storage device before returning
+     * @param content    writes the new content of the file
+     * @throws IOException if the content cannot be written or the target cannot be replaced;
+     *                     the target is left untouched in that case
+     */
+    public static void write(@NotNull Path target, @NotNull SaveDurability durability, @NotNull Content content) throws IOException {
+        writeChannel(target, durability, channel -> {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            content.writeTo(out);
+            out.flush();
+        });
+    }
+
+    /**
+     * Writes a file atomically, handing the channel of the temporary file to the content so that it
+     * can write its own buffers without going through a stream.
+     *
+     * @param target     the file to create or replace
+     * @param durability how much of the write is flushed to the storage device before returning
+     * @param content    writes the new content of the file
+     * @throws IOException if the content cannot be written or the target cannot be replaced;
+     *                     the target is left untouched in that case
+     */
+    public static void writeChannel(@NotNull Path target, @NotNull SaveDurability durability, @NotNull ChannelContent content)
+            throws IOException {
+        Path absolute = target.toAbsolutePath();
+        Path directory = absolute.getParent();
+        Files.createDirectories(directory);
+
+        Path temp = Files.createTempFile(directory, "." + absolute.getFileName() + ".", ".tmp");
+        try {
+            copyPermissions(absolute, temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                content.writeTo(channel);
+                if (durability != SaveDurability.NONE)
+                    channel.force(durability == SaveDurability.FULL);
+            }
+            move(temp, absolute);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+
+        if (durability == SaveDurability.FULL)
+            forceDirectory(directory);
+    }
+
+    private static void move(@NotNull Path source, @NotNull Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Same directory, so this only happens on exotic file systems; a plain replace is the best we can do
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void copyPermissions(@NotNull Path from, @NotNull Path to) throws IOException {
+        // Temporary files are created owner-only, keep the permissions of the file being replaced
+        PosixFileAttributeView view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (view != null && Files.exists(from))
+            Files.setPosixFilePermissions(to, view.readAttributes().permissions());
+    }
+
+    private static void forceDirectory(@NotNull Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // Directories cannot be opened on every platform (e.g. Windows), the rename is still atomic there
+        }
+    }
+
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface Content {
+        /**
+         * Writes the content to the given stream. The stream is buffered and must not be closed.
+         *
+         * @param out the stream to write to
+         * @throws IOException if the content cannot be written
+         */
+        void writeTo(@NotNull OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes the content of a file to its channel.
+     */
+    @FunctionalInterface
+    public interface ChannelContent {
+        /**
+         * Writes the content to the given channel. The channel must not be closed.
+         *
+         * @param channel the channel to write to
+         * @throws IOException if the content cannot be written
+         */
+        void writeTo(@NotNull FileChannel channel) throws IOException;
+    }
+}
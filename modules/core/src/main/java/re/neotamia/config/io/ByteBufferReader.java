@@ -0,0 +1,96 @@
+package re.neotamia.config.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Objects;
+
+/**
+ * Reader decoding the remaining bytes of a buffer, typically a memory-mapped file. Characters are
+ * decoded straight into the arrays passed to {@link #read(char[], int, int)}, without copying the
+ * bytes to the heap first. Malformed input is replaced, as {@link java.io.InputStreamReader} does.
+ */
+public final class ByteBufferReader extends Reader {
+    private final @NotNull ByteBuffer buffer;
+    private final @NotNull CharsetDecoder decoder;
+    private int pending = -1;
+    private boolean flushed;
+    private boolean closed;
+
+    /**
+     * Creates a reader decoding the remaining bytes of the given buffer.
+     * The reader advances the position of the buffer.
+     *
+     * @param buffer  the bytes to decode
+     * @param charset the charset of the bytes
+     */
+    public ByteBufferReader(@NotNull ByteBuffer buffer, @NotNull Charset charset) {
+        this.buffer = buffer;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public int read(char @NotNull [] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        if (closed)
+            throw new IOException("Reader closed");
+        if (len == 0)
+            return 0;
+
+        int start = off;
+        if (pending >= 0) {
+            cbuf[off++] = (char) pending;
+            len--;
+            pending = -1;
+            if (len == 0)
+                return 1;
+        }
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        decode(out);
+        int read = out.position() - start;
+        if (read > 0)
+            return read;
+        if (flushed)
+            return -1;
+
+        // A single free slot cannot hold a surrogate pair: decode it aside and keep the low surrogate
+        CharBuffer pair = CharBuffer.allocate(2);
+        decode(pair);
+        pair.flip();
+        if (!pair.hasRemaining())
+            return -1;
+        cbuf[off] = pair.get();
+        if (pair.hasRemaining())
+            pending = pair.get();
+        return 1;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        if (closed)
+            throw new IOException("Reader closed");
+        return pending >= 0 || buffer.hasRemaining();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private void decode(@NotNull CharBuffer out) {
+        if (flushed)
+            return;
+        decoder.decode(buffer, out, true);
+        if (!buffer.hasRemaining() && !decoder.flush(out).isOverflow())
+            flushed = true;
+    }
+}
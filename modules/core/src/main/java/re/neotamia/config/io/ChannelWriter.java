@@ -0,0 +1,201 @@
+package re.neotamia.config.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.util.Objects;
+
+/**
+ * Writer encoding characters to UTF-8 into a byte buffer, which is written to a channel in chunks
+ * each time it fills up. Runs of ASCII characters, which make up most of a configuration file, are
+ * copied to the buffer without going through a {@link java.nio.charset.CharsetEncoder}. Unpaired
+ * surrogates are replaced with {@code '?'}, as {@link String#getBytes} does.
+ * <p>
+ * The encoded bytes can also be fed to a digest. Without a channel, the writer only measures and
+ * hashes the content, which lets a caller find out whether a file would change without holding its
+ * content in memory.
+ */
+public final class ChannelWriter extends Writer {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final @Nullable WritableByteChannel channel;
+    private final @NotNull ByteBuffer buffer;
+    private final @Nullable MessageDigest digest;
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private char pendingHighSurrogate;
+    private long bytesWritten;
+    private boolean closed;
+
+    /**
+     * Creates a writer encoding into the given buffer.
+     * The buffer is cleared first; a direct buffer avoids a copy when it is written to a file channel.
+     *
+     * @param channel the channel receiving the bytes, or null to only measure and hash them
+     * @param buffer  the buffer to encode into, at least 4 bytes large
+     * @param digest  the digest to update with every byte written, or null
+     * @throws IllegalArgumentException if the buffer is too small to hold any character
+     */
+    public ChannelWriter(@Nullable WritableByteChannel channel, @NotNull ByteBuffer buffer, @Nullable MessageDigest digest)
+            throws IllegalArgumentException {
+        if (buffer.capacity() < 4)
+            throw new IllegalArgumentException("Buffer must hold at least 4 bytes: " + buffer.capacity());
+        this.channel = channel;
+        this.buffer = buffer.clear();
+        this.digest = digest;
+    }
+
+    /**
+     * Returns the number of bytes encoded so far, including those still in the buffer.
+     *
+     * @return the number of bytes
+     */
+    public long bytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        chunk[0] = (char) c;
+        encode(chunk, 0, 1);
+    }
+
+    @Override
+    public void write(char @NotNull [] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+        ensureOpen();
+        encode(cbuf, off, off + len);
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, str.length());
+        ensureOpen();
+        int end = off + len;
+        while (off < end) {
+            int count = Math.min(CHUNK_SIZE, end - off);
+            str.getChars(off, off + count, chunk, 0);
+            encode(chunk, 0, count);
+            off += count;
+        }
+    }
+
+    /**
+     * Writes the buffer to the channel. A high surrogate ending the last write is kept until the
+     * next write or {@link #close()}, since it cannot be encoded without its low surrogate.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        drain();
+    }
+
+    /**
+     * Flushes the writer. The channel is not closed, it belongs to the caller.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            put('?');
+        }
+        drain();
+        closed = true;
+    }
+
+    private void encode(char[] cbuf, int index, int end) throws IOException {
+        if (pendingHighSurrogate != 0 && index < end) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(cbuf[index]))
+                putCodePoint(Character.toCodePoint(high, cbuf[index++]));
+            else
+                put('?');
+        }
+
+        while (index < end) {
+            // ASCII fast path: copy as many single-byte characters as fit in the buffer
+            int limit = Math.min(end, index + buffer.remaining());
+            char c;
+            while (index < limit && (c = cbuf[index]) < 0x80) {
+                buffer.put((byte) c);
+                index++;
+            }
+            if (index == end)
+                return;
+            if (!buffer.hasRemaining()) {
+                drain();
+                continue;
+            }
+
+            c = cbuf[index++];
+            if (c < 0x80) {
+                put(c);
+            } else if (c < 0x800) {
+                ensureRemaining(2);
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                if (index == end) {
+                    pendingHighSurrogate = c;
+                    return;
+                }
+                if (Character.isLowSurrogate(cbuf[index]))
+                    putCodePoint(Character.toCodePoint(c, cbuf[index++]));
+                else
+                    put('?');
+            } else if (Character.isLowSurrogate(c)) {
+                put('?');
+            } else {
+                ensureRemaining(3);
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private void putCodePoint(int codePoint) throws IOException {
+        ensureRemaining(4);
+        buffer.put((byte) (0xF0 | codePoint >> 18));
+        buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+        buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        buffer.put((byte) (0x80 | codePoint & 0x3F));
+    }
+
+    private void put(char ascii) throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) ascii);
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        bytesWritten += buffer.remaining();
+        if (digest != null)
+            digest.update(buffer.duplicate());
+        if (channel != null) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Writer closed");
+    }
+}
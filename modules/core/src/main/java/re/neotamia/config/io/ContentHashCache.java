@@ -0,0 +1,310 @@
+package re.neotamia.config.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the SHA-256 digest of the files read and written through it, so that a save can tell
+ * whether the serialized content differs from what is already on disk without reading the file again.
+ * <p>
+ * Each digest is stored with the size and modification time the file had when it was hashed. When a
+ * file was changed by someone else since, the cached digest is ignored and the file is hashed again.
+ * The attributes of a file are read before its content, and a digest is not remembered when they
+ * changed while the content was read. A digest whose modification time is too close to the moment
+ * it was remembered is never trusted on its own either, since a later change within the resolution
+ * of the file system clock would leave the attributes untouched: the file is hashed again instead.
+ * <p>
+ * At most 16,384 digests are kept, so that loading a large directory does not keep one entry per
+ * file forever. Beyond that, an arbitrary digest is forgotten for each new one, which only costs
+ * hashing that file again on its next save.
+ */
+public final class ContentHashCache {
+    private static final String ALGORITHM = "SHA-256";
+    /**
+     * Coarsest modification time resolution among common file systems (FAT), in milliseconds.
+     */
+    private static final long MODIFICATION_TIME_RESOLUTION = 2_000;
+    /**
+     * Maximum number of remembered digests.
+     */
+    private static final int MAX_ENTRIES = 16_384;
+
+    private final @NotNull Map<Path, Remembered> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty cache.
+     */
+    public ContentHashCache() {}
+
+    /**
+     * Returns whether a file currently holds exactly the given content.
+     *
+     * @param path    the file to check
+     * @param content the content to compare with
+     * @return true if the file exists and its content is equal to the given content
+     * @throws IOException if the file attributes or content cannot be read
+     */
+    public boolean matches(@NotNull Path path, byte @NotNull [] content) throws IOException {
+        return matches(path, content.length, () -> digest(content));
+    }
+
+    /**
+     * Returns whether a file currently holds content of the given size and digest.
+     *
+     * @param path   the file to check
+     * @param size   the size of the content in bytes
+     * @param digest the SHA-256 digest of the content
+     * @return true if the file exists and its content has the same size and digest
+     * @throws IOException if the file attributes or content cannot be read
+     */
+    public boolean matches(@NotNull Path path, long size, byte @NotNull [] digest) throws IOException {
+        return matches(path, size, () -> digest);
+    }
+
+    private boolean matches(@NotNull Path path, long size, @NotNull Supplier<byte[]> contentDigest) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (attributes.size() != size)
+            return false;
+
+        byte[] digest = contentDigest.get();
+        Remembered remembered = fingerprints.get(key(path));
+        Fingerprint fingerprint = remembered != null && remembered.trusted(attributes) ? remembered.fingerprint() : null;
+        if (fingerprint == null)
+            fingerprint = remember(path, attributes, Files.readAllBytes(path));
+        return MessageDigest.isEqual(fingerprint.digest(), digest);
+    }
+
+    /**
+     * Remembers the digest of content that was read from a file.
+     *
+     * @param path       the file that was read
+     * @param attributes the attributes of the file, read before its content
+     * @param content    the content of the file
+     * @return the fingerprint of the content, which is only stored if the file did not change while
+     * it was read
+     * @throws IOException if the file attributes cannot be read
+     */
+    public @NotNull Fingerprint remember(@NotNull Path path, @NotNull BasicFileAttributes attributes, byte @NotNull [] content)
+            throws IOException {
+        return store(path, attributes, fingerprint(attributes, content));
+    }
+
+    /**
+     * Remembers the digest of the content of a file held in a buffer, such as a memory-mapped file.
+     * The position of the buffer is left unchanged.
+     *
+     * @param path       the file that was read
+     * @param attributes the attributes of the file, read before its content
+     * @param content    the content of the file
+     * @return the fingerprint of the content, which is only stored if the file did not change while
+     * it was read
+     * @throws IOException if the file attributes cannot be read
+     */
+    public @NotNull Fingerprint remember(@NotNull Path path, @NotNull BasicFileAttributes attributes, @NotNull ByteBuffer content)
+            throws IOException {
+        return store(path, attributes, fingerprint(attributes, content));
+    }
+
+    /**
+     * Remembers the digest of content that was just written to a file.
+     *
+     * @param path    the file that was written
+     * @param content the content of the file
+     * @return the fingerprint of the content
+     * @throws IOException if the file attributes cannot be read
+     */
+    public @NotNull Fingerprint remember(@NotNull Path path, byte @NotNull [] content) throws IOException {
+        return rememberDigest(path, content.length, digest(content));
+    }
+
+    /**
+     * Remembers the digest of content that was just written to a file, when the content itself was
+     * streamed to the file and is no longer available.
+     *
+     * @param path   the file that was written
+     * @param size   the size of the content in bytes
+     * @param digest the SHA-256 digest of the content of the file
+     * @return the fingerprint of the content
+     * @throws IOException if the file attributes cannot be read
+     */
+    public @NotNull Fingerprint rememberDigest(@NotNull Path path, long size, byte @NotNull [] digest) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Fingerprint fingerprint = new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis(), digest.clone());
+        // A different size means the file was written again by someone else in the meantime
+        if (attributes.size() != size) {
+            forget(path);
+            return fingerprint;
+        }
+        put(path, fingerprint);
+        return fingerprint;
+    }
+
+    /**
+     * Stores a fingerprint computed from the given attributes, unless the file no longer has them.
+     */
+    private @NotNull Fingerprint store(@NotNull Path path, @NotNull BasicFileAttributes attributes, @NotNull Fingerprint fingerprint)
+            throws IOException {
+        BasicFileAttributes current;
+        try {
+            current = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            current = null;
+        }
+        if (current != null && fingerprint.matches(current))
+            put(path, fingerprint);
+        else
+            forget(path);
+        return fingerprint;
+    }
+
+    /**
+     * Remembers a fingerprint, forgetting an arbitrary other one when the cache is full.
+     */
+    private void put(@NotNull Path path, @NotNull Fingerprint fingerprint) {
+        Path key = key(path);
+        if (fingerprints.size() >= MAX_ENTRIES && !fingerprints.containsKey(key)) {
+            Iterator<Path> keys = fingerprints.keySet().iterator();
+            if (keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        fingerprints.put(key, new Remembered(fingerprint, System.currentTimeMillis()));
+    }
+
+    /**
+     * Forgets the digest of a file.
+     *
+     * @param path the file to forget
+     */
+    public void forget(@NotNull Path path) {
+        fingerprints.remove(key(path));
+    }
+
+    /**
+     * Forgets every digest.
+     */
+    public void clear() {
+        fingerprints.clear();
+    }
+
+    /**
+     * Computes the SHA-256 digest of the given content.
+     *
+     * @param content the content to hash
+     * @return the digest
+     */
+    public static byte @NotNull [] digest(byte @NotNull [] content) {
+        return newDigest().digest(content);
+    }
+
+    /**
+     * Computes the fingerprint of a file from its current attributes and the given content, without
+     * remembering it.
+     *
+     * @param path    the file
+     * @param content the content of the file
+     * @return the fingerprint of the file
+     * @throws IOException if the file attributes cannot be read
+     */
+    public static @NotNull Fingerprint fingerprint(@NotNull Path path, byte @NotNull [] content) throws IOException {
+        return fingerprint(Files.readAttributes(path, BasicFileAttributes.class), content);
+    }
+
+    /**
+     * Computes the fingerprint of a file from the given attributes and content, without remembering it.
+     *
+     * @param attributes the attributes of the file, read before its content
+     * @param content    the content of the file
+     * @return the fingerprint of the file
+     */
+    public static @NotNull Fingerprint fingerprint(@NotNull BasicFileAttributes attributes, byte @NotNull [] content) {
+        return new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis(), digest(content));
+    }
+
+    /**
+     * Computes the fingerprint of a file from the given attributes and the content held in a buffer,
+     * without remembering it. The position of the buffer is left unchanged.
+     *
+     * @param attributes the attributes of the file, read before its content
+     * @param content    the content of the file
+     * @return the fingerprint of the file
+     */
+    public static @NotNull Fingerprint fingerprint(@NotNull BasicFileAttributes attributes, @NotNull ByteBuffer content) {
+        return new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis(), digest(content));
+    }
+
+    /**
+     * Computes the SHA-256 digest of the remaining bytes of a buffer.
+     * The position of the buffer is left unchanged.
+     *
+     * @param content the content to hash
+     * @return the digest
+     */
+    public static byte @NotNull [] digest(@NotNull ByteBuffer content) {
+        MessageDigest digest = newDigest();
+        digest.update(content.duplicate());
+        return digest.digest();
+    }
+
+    /**
+     * Creates a SHA-256 digest, the algorithm of every digest of this cache.
+     *
+     * @return a new digest
+     */
+    public static @NotNull MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static @NotNull Path key(@NotNull Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Digest of a file together with the attributes it had when it was hashed.
+     *
+     * @param size         the size of the file in bytes
+     * @param lastModified the modification time of the file in milliseconds
+     * @param digest       the SHA-256 digest of the content
+     */
+    public record Fingerprint(long size, long lastModified, byte @NotNull [] digest) {
+        private boolean matches(@NotNull BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+
+    /**
+     * Fingerprint stored by the cache, with the time it was stored at.
+     */
+    private record Remembered(@NotNull Fingerprint fingerprint, long rememberedAt) {
+        /**
+         * Returns whether the digest can be trusted without hashing the file again: the file must
+         * still have the same attributes, and it must have been modified long enough before the
+         * digest was stored for a later change to have moved its modification time.
+         */
+        private boolean trusted(@NotNull BasicFileAttributes attributes) {
+            return fingerprint.matches(attributes) && fingerprint.lastModified() + MODIFICATION_TIME_RESOLUTION < rememberedAt;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package re.neotamia.config.io;
+
+/**
+ * How much of an atomic save is flushed to the storage device before the save returns.
+ * <p>
+ * Higher levels survive power loss or kernel crashes at the cost of one or two {@code fsync}
+ * calls per save; every level survives a crash of the JVM itself since the target is only ever
+ * replaced by a fully written file.
+ */
+public enum SaveDurability {
+    /**
+     * The temporary file is not flushed; the operating system writes it back whenever it wants.
+     */
+    NONE,
+    /**
+     * The content of the temporary file is flushed before it replaces the target.
+     */
+    DATA,
+    /**
+     * The content and metadata of the temporary file are flushed before it replaces the target,
+     * and the parent directory is flushed afterwards so that the rename itself is persisted.
+     */
+    FULL
+}
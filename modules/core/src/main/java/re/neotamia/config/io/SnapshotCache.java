@@ -0,0 +1,327 @@
+package re.neotamia.config.io;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.nightconfig.core.CommentedConfig;
+import re.neotamia.nightconfig.core.Config;
+import re.neotamia.nightconfig.core.NullObject;
+import re.neotamia.nightconfig.core.UnmodifiableCommentedConfig;
+import re.neotamia.nightconfig.core.UnmodifiableConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk cache of parsed configuration trees. Each snapshot holds the tree of one file in a compact
+ * binary form, together with the size, modification time and SHA-256 digest the file had when it was
+ * parsed. A snapshot is only used when all three still match, so that a file edited by hand is always
+ * parsed again.
+ * <p>
+ * Snapshots are named after the digest of the absolute path of their file. Trees holding values the
+ * snapshot format does not know or nested deeper than 512 levels are not cached, and a missing,
+ * unreadable, corrupt or too deeply nested snapshot is treated as a miss: the cache never makes a
+ * load fail.
+ */
+public final class SnapshotCache {
+    private static final int MAGIC = 0x4E54534E; // "NTSN"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".snapshot";
+    private static final int MAX_DEPTH = 512;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_CONFIG = 1;
+    private static final byte TAG_LIST = 2;
+    private static final byte TAG_STRING = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_INT = 5;
+    private static final byte TAG_LONG = 6;
+    private static final byte TAG_DOUBLE = 7;
+    private static final byte TAG_FLOAT = 8;
+    private static final byte TAG_BIG_INTEGER = 9;
+    private static final byte TAG_BIG_DECIMAL = 10;
+    private static final byte TAG_OFFSET_DATE_TIME = 11;
+    private static final byte TAG_LOCAL_DATE_TIME = 12;
+    private static final byte TAG_LOCAL_DATE = 13;
+    private static final byte TAG_LOCAL_TIME = 14;
+
+    private final @NotNull Path directory;
+
+    /**
+     * Creates a snapshot cache storing its snapshots in the given directory.
+     * The directory is created on the first snapshot.
+     *
+     * @param directory the directory of the snapshots
+     */
+    public SnapshotCache(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the directory of the snapshots.
+     *
+     * @return the snapshot directory
+     */
+    public @NotNull Path directory() {
+        return directory;
+    }
+
+    /**
+     * Fills a config with the snapshot of a file, if the snapshot matches the current file.
+     * The config is only modified when the snapshot is used.
+     *
+     * @param path        the configuration file
+     * @param fingerprint the fingerprint of the current content of the file
+     * @param target      the config to fill, replacing its content
+     * @return true if the snapshot matched and was loaded, false if the file must be parsed
+     */
+    public boolean load(@NotNull Path path, @NotNull ContentHashCache.Fingerprint fingerprint, @NotNull Config target) {
+        Path key = key(path);
+        Path snapshot = snapshotPath(key);
+        try {
+            // Decoded from memory: a snapshot is small next to its tree, and reading it at once avoids a read per value
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            if (in.getInt() != MAGIC || Byte.toUnsignedInt(in.get()) != FORMAT_VERSION)
+                return false;
+            if (!readString(in).equals(key.toString()) || in.getLong() != fingerprint.size() || in.getLong() != fingerprint.lastModified())
+                return false;
+            byte[] digest = new byte[fingerprint.digest().length];
+            in.get(digest);
+            if (!MessageDigest.isEqual(digest, fingerprint.digest()))
+                return false;
+
+            // Decode into a detached tree first so that a truncated snapshot leaves the target untouched
+            Config tree = target.createSubConfig();
+            readConfig(in, tree, 0);
+            target.clear();
+            target.valueMap().putAll(tree.valueMap());
+            if (target instanceof CommentedConfig commentedTarget && tree instanceof CommentedConfig commentedTree)
+                commentedTarget.commentMap().putAll(commentedTree.commentMap());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stores the snapshot of a file that was just parsed.
+     *
+     * @param path        the configuration file
+     * @param fingerprint the fingerprint of the content the tree was parsed from
+     * @param tree        the parsed tree
+     * @return true if the snapshot was written, false if the tree cannot be cached or the snapshot cannot be written
+     */
+    public boolean store(@NotNull Path path, @NotNull ContentHashCache.Fingerprint fingerprint, @NotNull UnmodifiableConfig tree) {
+        Path key = key(path);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, key.toString());
+            out.writeLong(fingerprint.size());
+            out.writeLong(fingerprint.lastModified());
+            out.write(fingerprint.digest());
+            writeConfig(out, tree, 0);
+            out.flush();
+
+            Files.createDirectories(directory);
+            AtomicFileWriter.write(snapshotPath(key), SaveDurability.NONE, buffer::writeTo);
+            return true;
+        } catch (UnsupportedValueException | IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the snapshot of a file.
+     *
+     * @param path the configuration file
+     * @throws IOException if the snapshot exists but cannot be deleted
+     */
+    public void invalidate(@NotNull Path path) throws IOException {
+        Files.deleteIfExists(snapshotPath(key(path)));
+    }
+
+    private @NotNull Path snapshotPath(@NotNull Path key) {
+        byte[] digest = ContentHashCache.digest(key.toString().getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(HexFormat.of().formatHex(digest) + SUFFIX);
+    }
+
+    private static @NotNull Path key(@NotNull Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static void writeConfig(@NotNull DataOutputStream out, @NotNull UnmodifiableConfig config, int depth) throws IOException {
+        if (depth > MAX_DEPTH)
+            throw new UnsupportedValueException();
+        Map<String, Object> values = config.valueMap();
+        Map<String, String> comments = config instanceof UnmodifiableCommentedConfig commented ? commented.commentMap() : Map.of();
+        out.writeInt(values.size());
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            writeString(out, entry.getKey());
+            String comment = comments.get(entry.getKey());
+            out.writeBoolean(comment != null);
+            if (comment != null)
+                writeString(out, comment);
+            writeValue(out, entry.getValue(), depth);
+        }
+    }
+
+    private static void writeValue(@NotNull DataOutputStream out, Object value, int depth) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(TAG_NULL);
+            case NullObject ignored -> out.writeByte(TAG_NULL);
+            case UnmodifiableConfig config -> {
+                out.writeByte(TAG_CONFIG);
+                writeConfig(out, config, depth + 1);
+            }
+            case List<?> list -> {
+                if (depth >= MAX_DEPTH)
+                    throw new UnsupportedValueException();
+                out.writeByte(TAG_LIST);
+                out.writeInt(list.size());
+                for (Object element : list) writeValue(out, element, depth + 1);
+            }
+            case String string -> {
+                out.writeByte(TAG_STRING);
+                writeString(out, string);
+            }
+            case Boolean bool -> {
+                out.writeByte(TAG_BOOLEAN);
+                out.writeBoolean(bool);
+            }
+            case Integer integer -> {
+                out.writeByte(TAG_INT);
+                out.writeInt(integer);
+            }
+            case Long number -> {
+                out.writeByte(TAG_LONG);
+                out.writeLong(number);
+            }
+            case Double number -> {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble(number);
+            }
+            case Float number -> {
+                out.writeByte(TAG_FLOAT);
+                out.writeFloat(number);
+            }
+            case BigInteger number -> {
+                out.writeByte(TAG_BIG_INTEGER);
+                writeString(out, number.toString());
+            }
+            case BigDecimal number -> {
+                out.writeByte(TAG_BIG_DECIMAL);
+                writeString(out, number.toString());
+            }
+            case OffsetDateTime temporal -> {
+                out.writeByte(TAG_OFFSET_DATE_TIME);
+                writeString(out, temporal.toString());
+            }
+            case LocalDateTime temporal -> {
+                out.writeByte(TAG_LOCAL_DATE_TIME);
+                writeString(out, temporal.toString());
+            }
+            case LocalDate temporal -> {
+                out.writeByte(TAG_LOCAL_DATE);
+                writeString(out, temporal.toString());
+            }
+            case LocalTime temporal -> {
+                out.writeByte(TAG_LOCAL_TIME);
+                writeString(out, temporal.toString());
+            }
+            default -> throw new UnsupportedValueException();
+        }
+    }
+
+    private static void readConfig(@NotNull ByteBuffer in, @NotNull Config config, int depth) throws IOException {
+        if (depth > MAX_DEPTH)
+            throw new IOException("Snapshot nested deeper than " + MAX_DEPTH + " levels");
+        int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            String comment = in.get() != 0 ? readString(in) : null;
+            config.valueMap().put(key, readValue(in, config, depth));
+            if (comment != null && config instanceof CommentedConfig commented)
+                commented.commentMap().put(key, comment);
+        }
+    }
+
+    private static Object readValue(@NotNull ByteBuffer in, @NotNull Config parent, int depth) throws IOException {
+        byte tag = in.get();
+        return switch (tag) {
+            case TAG_NULL -> NullObject.NULL_OBJECT;
+            case TAG_CONFIG -> {
+                Config config = parent.createSubConfig();
+                readConfig(in, config, depth + 1);
+                yield config;
+            }
+            case TAG_LIST -> {
+                if (depth >= MAX_DEPTH)
+                    throw new IOException("Snapshot nested deeper than " + MAX_DEPTH + " levels");
+                int size = in.getInt();
+                if (size < 0 || size > in.remaining())
+                    throw new IOException("Truncated snapshot");
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    Object element = readValue(in, parent, depth + 1);
+                    list.add(element == NullObject.NULL_OBJECT ? null : element);
+                }
+                yield list;
+            }
+            case TAG_STRING -> readString(in);
+            case TAG_BOOLEAN -> in.get() != 0;
+            case TAG_INT -> in.getInt();
+            case TAG_LONG -> in.getLong();
+            case TAG_DOUBLE -> in.getDouble();
+            case TAG_FLOAT -> in.getFloat();
+            case TAG_BIG_INTEGER -> new BigInteger(readString(in));
+            case TAG_BIG_DECIMAL -> new BigDecimal(readString(in));
+            case TAG_OFFSET_DATE_TIME -> OffsetDateTime.parse(readString(in));
+            case TAG_LOCAL_DATE_TIME -> LocalDateTime.parse(readString(in));
+            case TAG_LOCAL_DATE -> LocalDate.parse(readString(in));
+            case TAG_LOCAL_TIME -> LocalTime.parse(readString(in));
+            default -> throw new IOException("Unknown snapshot value tag " + tag);
+        };
+    }
+
+    // DataOutputStream.writeUTF is limited to 64 KiB, which long multi-line strings can exceed
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @NotNull String readString(@NotNull ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining())
+            throw new IOException("Truncated snapshot");
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * Thrown while encoding a tree holding a value the snapshot format does not know.
+     */
+    private static final class UnsupportedValueException extends RuntimeException {
+        private UnsupportedValueException() {
+            super(null, null, false, false);
+        }
+    }
+}
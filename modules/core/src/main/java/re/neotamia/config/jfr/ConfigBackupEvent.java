@@ -0,0 +1,44 @@
+package re.neotamia.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted when a backup of a configuration file is created.
+ */
+@Name("re.neotamia.config.Backup")
+@Label("Config Backup")
+@Category({"NTConfig", "File I/O"})
+@Description("Backup of a configuration file created before a migration")
+@StackTrace(false)
+public final class ConfigBackupEvent extends Event {
+    /**
+     * The configuration file.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * The backup file, or the stored object for deduplicated backups.
+     */
+    @Label("Backup Path")
+    public String backupPath;
+
+    /**
+     * The backup mode.
+     */
+    @Label("Mode")
+    public String mode;
+
+    /**
+     * The size of the backup file or stored object.
+     */
+    @Label("Size")
+    @DataAmount
+    public long size;
+}
@@ -0,0 +1,44 @@
+package re.neotamia.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted when a configuration file is loaded into an object.
+ */
+@Name("re.neotamia.config.Load")
+@Label("Config Load")
+@Category({"NTConfig", "File I/O"})
+@Description("Configuration file read, parsed and deserialized")
+@StackTrace(false)
+public final class ConfigLoadEvent extends Event {
+    /**
+     * The configuration file.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * The extension of the file, which selects its format.
+     */
+    @Label("Format")
+    public String format;
+
+    /**
+     * The size of the file.
+     */
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    /**
+     * The configuration class.
+     */
+    @Label("Config Class")
+    public Class<?> configClass;
+}
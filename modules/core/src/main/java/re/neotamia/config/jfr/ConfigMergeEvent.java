@@ -0,0 +1,36 @@
+package re.neotamia.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted when a configuration tree is merged with the template defaults.
+ */
+@Name("re.neotamia.config.Merge")
+@Label("Config Merge")
+@Category({"NTConfig", "Migration"})
+@Description("Configuration tree merged with the serialized template defaults")
+@StackTrace(false)
+public final class ConfigMergeEvent extends Event {
+    /**
+     * The merge operation of {@code ConfigTreeMerger}.
+     */
+    @Label("Operation")
+    public String operation;
+
+    /**
+     * The number of top-level entries of the defaults.
+     */
+    @Label("Default Entries")
+    public int defaultEntries;
+
+    /**
+     * Whether values were added to the target.
+     */
+    @Label("Merged")
+    public boolean merged;
+}
@@ -0,0 +1,68 @@
+package re.neotamia.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for each {@code migrateAndLoad} call, whether or not the file needed a migration.
+ */
+@Name("re.neotamia.config.Migration")
+@Label("Config Migration")
+@Category({"NTConfig", "Migration"})
+@Description("Configuration file loaded, migrated, merged with the template defaults and saved if needed")
+@StackTrace(false)
+public final class ConfigMigrationEvent extends Event {
+    /**
+     * The configuration file.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * The extension of the file, which selects its format.
+     */
+    @Label("Format")
+    public String format;
+
+    /**
+     * The size of the file as read.
+     */
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    /**
+     * The configuration class.
+     */
+    @Label("Config Class")
+    public Class<?> configClass;
+
+    /**
+     * The version of the file before migration.
+     */
+    @Label("From Version")
+    public String fromVersion;
+
+    /**
+     * The version of the file after migration.
+     */
+    @Label("To Version")
+    public String toVersion;
+
+    /**
+     * Whether migration steps ran or the file was updated.
+     */
+    @Label("Migrated")
+    public boolean migrated;
+
+    /**
+     * Whether the file was written.
+     */
+    @Label("Written")
+    public boolean written;
+}
@@ -0,0 +1,50 @@
+package re.neotamia.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted when a configuration object is saved to its file.
+ */
+@Name("re.neotamia.config.Save")
+@Label("Config Save")
+@Category({"NTConfig", "File I/O"})
+@Description("Configuration serialized and written, unless the file already held the content")
+@StackTrace(false)
+public final class ConfigSaveEvent extends Event {
+    /**
+     * The configuration file.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * The extension of the file, which selects its format.
+     */
+    @Label("Format")
+    public String format;
+
+    /**
+     * The size of the file after the save.
+     */
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    /**
+     * The configuration class.
+     */
+    @Label("Config Class")
+    public Class<?> configClass;
+
+    /**
+     * Whether the file was written, false when the write was skipped.
+     */
+    @Label("Written")
+    public boolean written;
+}
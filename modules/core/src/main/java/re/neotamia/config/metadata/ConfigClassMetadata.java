@@ -0,0 +1,130 @@
+package re.neotamia.config.metadata;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.annotation.ConfigHeader;
+import re.neotamia.config.migration.core.ConfigTreeMerger;
+import re.neotamia.config.migration.version.MigrationVersion;
+import re.neotamia.config.migration.version.VersionUtils;
+import re.neotamia.config.reflect.Instantiators;
+import re.neotamia.nightconfig.core.Config;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reflective metadata of a configuration class, resolved once and reused by every save and load.
+ * <p>
+ * It covers what NTConfig itself reflects on: the header comment, the version field and its
+ * serialized key, the instantiator and the serialized template defaults. Field discovery, key
+ * naming, comments and type adapters are resolved by the NightConfig object serializer and
+ * deserializer and are not part of this metadata.
+ */
+public final class ConfigClassMetadata {
+    private final @NotNull Class<?> type;
+    private final @Nullable String header;
+    private final boolean versioned;
+    private volatile @Nullable TemplateTree templateTree;
+    private volatile @Nullable Optional<String> versionKey;
+
+    ConfigClassMetadata(@NotNull Class<?> type) {
+        this.type = type;
+        ConfigHeader configHeader = type.getAnnotation(ConfigHeader.class);
+        this.header = configHeader != null && !configHeader.value().isEmpty() ? configHeader.value() : null;
+        this.versioned = VersionUtils.hasVersionField(type);
+    }
+
+    /**
+     * Returns the configuration class described by this metadata.
+     *
+     * @return the configuration class
+     */
+    public @NotNull Class<?> type() {
+        return type;
+    }
+
+    /**
+     * Returns the header comment declared with {@link ConfigHeader}.
+     *
+     * @return the header comment, or null if the class has no non-empty header
+     */
+    public @Nullable String header() {
+        return header;
+    }
+
+    /**
+     * Returns whether the class declares a version field.
+     *
+     * @return true if the class has a field annotated with {@code @ConfigVersion}
+     */
+    public boolean isVersioned() {
+        return versioned;
+    }
+
+    /**
+     * Returns the default version declared by the version field.
+     *
+     * @return the default version, or null if the class is not versioned
+     */
+    public @Nullable MigrationVersion defaultVersion() {
+        return versioned ? VersionUtils.getDefaultVersion(type) : null;
+    }
+
+    /**
+     * Creates a new instance of the configuration class through its cached instantiator.
+     *
+     * @param <T> the configuration type
+     * @return a new instance
+     * @throws RuntimeException if the class cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull T newInstance() throws RuntimeException {
+        return (T) Instantiators.newInstance(type);
+    }
+
+    /**
+     * Returns the serialized form of a template, reusing the tree of the previous call when the
+     * template holds the same values.
+     * <p>
+     * Templates are compared by their fingerprint, the values they hold, so a freshly constructed
+     * template with default values hits the cache just like the same instance passed again. Only the
+     * tree of the most recent template is kept, and templates holding state that cannot be compared
+     * by value are serialized on every call. The cached tree is shared, so it is returned as a view
+     * whose writes never reach it.
+     *
+     * @param template   the template to serialize
+     * @param serializer serializes a template into a new config when the cache misses
+     * @param <T>        the template type
+     * @return the serialized template; never null
+     */
+    public <T> @NotNull Config templateTree(@NotNull T template, @NotNull Function<? super T, ? extends Config> serializer) {
+        List<Object> fingerprint = TemplateFingerprint.of(template);
+        if (fingerprint == null)
+            return serializer.apply(template);
+        TemplateTree cached = templateTree;
+        if (cached != null && cached.fingerprint().equals(fingerprint))
+            return ConfigTreeMerger.view(cached.tree());
+
+        Config tree = serializer.apply(template);
+        templateTree = new TemplateTree(fingerprint, tree);
+        return ConfigTreeMerger.view(tree);
+    }
+
+    /**
+     * Returns the key under which the version field is serialized, resolving it on first use.
+     *
+     * @param resolver resolves the key with the serialization context of the owning instance
+     * @return the serialized version key, or null if the class is not versioned
+     */
+    public @Nullable String versionKey(@NotNull Function<ConfigClassMetadata, String> resolver) {
+        Optional<String> cached = versionKey;
+        if (cached == null) {
+            cached = Optional.ofNullable(versioned ? resolver.apply(this) : null);
+            versionKey = cached;
+        }
+        return cached.orElse(null);
+    }
+
+    private record TemplateTree(@NotNull List<Object> fingerprint, @NotNull Config tree) {}
+}
@@ -0,0 +1,40 @@
+package re.neotamia.config.metadata;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-{@link re.neotamia.config.NTConfig} cache of {@link ConfigClassMetadata}.
+ * <p>
+ * Entries depend on the serialization context of the owning instance and are dropped
+ * with {@link #invalidate()} whenever that context changes.
+ */
+public final class ConfigMetadataCache {
+    private final @NotNull Map<Class<?>, ConfigClassMetadata> metadata = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty metadata cache.
+     */
+    public ConfigMetadataCache() {}
+
+    /**
+     * Returns the metadata of the given class, computing it on first use.
+     *
+     * @param type the configuration class
+     * @return the cached metadata; never null
+     */
+    public @NotNull ConfigClassMetadata get(@NotNull Class<?> type) {
+        ConfigClassMetadata cached = metadata.get(type);
+        if (cached != null) return cached;
+        return metadata.computeIfAbsent(type, ConfigClassMetadata::new);
+    }
+
+    /**
+     * Drops every cached entry.
+     */
+    public void invalidate() {
+        metadata.clear();
+    }
+}
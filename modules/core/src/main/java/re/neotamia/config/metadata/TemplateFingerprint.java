@@ -0,0 +1,163 @@
+package re.neotamia.config.metadata;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Captures the state of a configuration template as a flat list of immutable values.
+ * <p>
+ * The list covers the same state as serialization: every non-static, non-transient field of the
+ * template and of the objects it references, the elements of collections, maps and arrays, and
+ * immutable JDK values such as strings, numbers, paths and dates. Two templates with equal
+ * fingerprints hold the same values, so a serialized template can be reused without serializing it
+ * again.
+ * <p>
+ * Templates that hold state which cannot be captured by value have no fingerprint: other JDK objects
+ * (e.g. {@code AtomicInteger} or {@code StringBuilder}, whose {@code hashCode} and {@code equals}
+ * are based on identity), fields that cannot be made accessible, and references nested deeper than
+ * 64 levels, which include cycles.
+ */
+final class TemplateFingerprint {
+    private static final int MAX_DEPTH = 64;
+    private static final Field[] OPAQUE = new Field[0];
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            return resolveFields(type);
+        }
+    };
+
+    /**
+     * Utility class.
+     */
+    private TemplateFingerprint() {}
+
+    /**
+     * Computes the fingerprint of a template.
+     *
+     * @param template the template to capture
+     * @return the fingerprint, or null if the template holds state that cannot be captured by value
+     */
+    static @Nullable List<Object> of(@NotNull Object template) {
+        List<Object> fingerprint = new ArrayList<>();
+        return capture(fingerprint, template, 0) ? fingerprint : null;
+    }
+
+    private static boolean capture(@NotNull List<Object> fingerprint, @Nullable Object value, int depth) {
+        if (value == null) {
+            fingerprint.add(null);
+            return true;
+        }
+        if (depth > MAX_DEPTH)
+            return false;
+
+        Class<?> type = value.getClass();
+        fingerprint.add(type);
+        switch (value) {
+            case String string -> fingerprint.add(string);
+            case Number number when type.getName().startsWith("java.lang.") -> fingerprint.add(number);
+            case Boolean bool -> fingerprint.add(bool);
+            case Character character -> fingerprint.add(character);
+            case Enum<?> constant -> fingerprint.add(constant);
+            case Optional<?> optional -> {
+                return capture(fingerprint, optional.orElse(null), depth + 1);
+            }
+            case Collection<?> collection -> {
+                for (Object element : collection) {
+                    if (!capture(fingerprint, element, depth + 1)) return false;
+                }
+                fingerprint.add(collection.size());
+            }
+            case Map<?, ?> map -> {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!capture(fingerprint, entry.getKey(), depth + 1)) return false;
+                    if (!capture(fingerprint, entry.getValue(), depth + 1)) return false;
+                }
+                fingerprint.add(map.size());
+            }
+            default -> {
+                if (type.isArray()) {
+                    int length = Array.getLength(value);
+                    for (int i = 0; i < length; i++) {
+                        if (!capture(fingerprint, Array.get(value, i), depth + 1)) return false;
+                    }
+                    fingerprint.add(length);
+                    return true;
+                }
+                if (isImmutableValue(value)) {
+                    fingerprint.add(value);
+                    return true;
+                }
+                Field[] fields = FIELDS.get(type);
+                if (fields == OPAQUE)
+                    return false;
+                for (Field field : fields) {
+                    try {
+                        if (!capture(fingerprint, field.get(value), depth + 1)) return false;
+                    } catch (IllegalAccessException e) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a value is an immutable JDK value with a value-based {@code equals}, which can
+     * be kept in a fingerprint as is.
+     */
+    private static boolean isImmutableValue(@NotNull Object value) {
+        String name = value.getClass().getName();
+        if (!name.startsWith("java.") && !name.startsWith("sun.nio.fs."))
+            return false;
+        return value instanceof TemporalAccessor || value instanceof TemporalAmount || value instanceof ZoneId
+                || value instanceof BigDecimal || value instanceof BigInteger || value instanceof UUID
+                || value instanceof URI || value instanceof Path || value instanceof File
+                || value instanceof Locale || value instanceof Charset || value instanceof Class<?>;
+    }
+
+    private static Field @NotNull [] resolveFields(@NotNull Class<?> type) {
+        // Other JDK objects are compared through fields this class cannot see, or not at all
+        String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun."))
+            return OPAQUE;
+
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) continue;
+                try {
+                    field.setAccessible(true);
+                } catch (InaccessibleObjectException e) {
+                    return OPAQUE;
+                }
+                fields.add(field);
+            }
+        }
+        return fields.toArray(Field[]::new);
+    }
+}
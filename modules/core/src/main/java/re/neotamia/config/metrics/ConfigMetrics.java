@@ -0,0 +1,151 @@
+package re.neotamia.config.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.migration.hook.MigrationHook;
+import re.neotamia.config.migration.step.ConfigMigrationStep;
+import re.neotamia.config.migration.version.MigrationVersion;
+
+import java.nio.file.Path;
+
+/**
+ * Receives timings and counters from {@code NTConfig} and {@code ConfigMigrationManager}, to be
+ * forwarded to a metrics library. Every method does nothing by default, so implementations only
+ * override what they record; {@link #noop()} is used when no metrics are configured.
+ * <p>
+ * Methods are called synchronously on the thread doing the work, possibly from several threads at
+ * once, and must be cheap and thread-safe. Durations are in nanoseconds.
+ */
+public interface ConfigMetrics {
+    /**
+     * Returns the metrics implementation recording nothing.
+     *
+     * @return the no-op metrics
+     */
+    static @NotNull ConfigMetrics noop() {
+        return NoopConfigMetrics.INSTANCE;
+    }
+
+    /**
+     * Called after a configuration file was read. When the file is read into memory or mapped
+     * before being parsed, the duration only covers the I/O and {@link #fileParsed} reports the
+     * parsing. When the format parses the file while reading it, the duration covers both and
+     * {@link #fileParsed} is not called.
+     *
+     * @param path          the configuration file
+     * @param bytes         the number of bytes read
+     * @param durationNanos the time spent reading the file
+     */
+    default void fileRead(@NotNull Path path, long bytes, long durationNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called after the content of a configuration file, read by {@link #fileRead}, was parsed into
+     * a tree or decoded from its snapshot. Memory-mapped files are paged in while they are parsed.
+     *
+     * @param path          the configuration file
+     * @param durationNanos the time spent parsing the content
+     */
+    default void fileParsed(@NotNull Path path, long durationNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called after a configuration file was written.
+     *
+     * @param path          the configuration file
+     * @param bytes         the number of bytes written
+     * @param durationNanos the time spent serializing and writing the file
+     */
+    default void fileWritten(@NotNull Path path, long bytes, long durationNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called when a save was skipped because the file already held the serialized content.
+     *
+     * @param path the configuration file
+     */
+    default void writeSkipped(@NotNull Path path) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called after a configuration tree was deserialized into an object.
+     *
+     * @param type          the configuration class
+     * @param durationNanos the time spent deserializing
+     */
+    default void deserialized(@NotNull Class<?> type, long durationNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called after a migration step ran successfully.
+     *
+     * @param path          the configuration file being migrated
+     * @param step          the step
+     * @param durationNanos the time spent in {@link ConfigMigrationStep#migrate}
+     */
+    default void stepCompleted(@NotNull Path path, @NotNull ConfigMigrationStep step, long durationNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called after a backup was created before a migration.
+     *
+     * @param path          the configuration file being migrated
+     * @param backupPath    the backup, or null if backups are disabled
+     * @param durationNanos the time spent creating the backup
+     */
+    default void backupCreated(@NotNull Path path, @Nullable Path backupPath, long durationNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called after a configuration was migrated and its backup, if any, was created. A migration
+     * whose backup fails is reported to {@link #migrationFailed} instead.
+     *
+     * @param path          the configuration file
+     * @param fromVersion   the version before migration
+     * @param toVersion     the version after migration
+     * @param durationNanos the time spent migrating, until both the steps and the backup were done
+     */
+    default void migrationCompleted(@NotNull Path path, @NotNull MigrationVersion fromVersion, @NotNull MigrationVersion toVersion,
+                                    long durationNanos) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called when a migration failed.
+     *
+     * @param path    the configuration file
+     * @param failure the cause of the failure
+     */
+    default void migrationFailed(@NotNull Path path, @NotNull Throwable failure) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called when a configuration did not need to be migrated.
+     *
+     * @param path    the configuration file
+     * @param version the version of the configuration, if known
+     */
+    default void migrationSkipped(@NotNull Path path, @Nullable MigrationVersion version) {
+        // Default implementation does nothing
+    }
+
+    /**
+     * Called when a migration hook threw an exception. Hook failures never fail the migration.
+     * The default implementation logs the failure as a warning through {@link System.Logger}.
+     *
+     * @param hook    the hook
+     * @param failure the exception thrown by the hook
+     */
+    default void hookFailed(@NotNull MigrationHook hook, @NotNull Exception failure) {
+        System.getLogger(ConfigMetrics.class.getName()).log(System.Logger.Level.WARNING,
+                "Migration hook " + hook.getClass().getName() + " failed", failure);
+    }
+}
@@ -0,0 +1,10 @@
+package re.neotamia.config.metrics;
+
+/**
+ * Metrics recording nothing, apart from the default report of hook failures.
+ */
+final class NoopConfigMetrics implements ConfigMetrics {
+    static final NoopConfigMetrics INSTANCE = new NoopConfigMetrics();
+
+    private NoopConfigMetrics() {}
+}
@@ -3,6 +3,7 @@ package re.neotamia.config.migration.core;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import re.neotamia.config.backup.BackupManager;
+import re.neotamia.config.metrics.ConfigMetrics;
 import re.neotamia.config.migration.hook.MigrationHook;
 import re.neotamia.config.migration.step.ConfigMigrationStep;
 import re.neotamia.config.migration.version.MigrationVersion;
@@ -11,11 +12,14 @@ import re.neotamia.config.registry.ConfigMigrationRegistry;
 import re.neotamia.nightconfig.core.Config;
 import re.neotamia.nightconfig.core.serde.NamingStrategy;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 
 /**
  * Main manager for raw configuration migration operations.
@@ -27,6 +31,8 @@ public class ConfigMigrationManager {
     private final @NotNull List<MigrationHook> hooks;
     private MergeStrategy defaultMergeStrategy = MergeStrategy.MERGE_MISSING_ONLY;
     private MissingStepPolicy missingStepPolicy = MissingStepPolicy.FAIL;
+    private @Nullable Executor backupExecutor;
+    private @NotNull ConfigMetrics metrics = ConfigMetrics.noop();
 
     /**
      * Creates a migration manager with a custom backup manager.
@@ -36,7 +42,8 @@ public class ConfigMigrationManager {
     public ConfigMigrationManager(@NotNull BackupManager backupManager) {
         this.backupManager = backupManager;
         this.migrationRegistry = new ConfigMigrationRegistry();
-        this.hooks = new ArrayList<>();
+        // Hooks also run on the backup executor, concurrently with registration
+        this.hooks = new CopyOnWriteArrayList<>();
     }
 
     /**
@@ -128,6 +135,51 @@ public class ConfigMigrationManager {
         this.missingStepPolicy = missingStepPolicy != null ? missingStepPolicy : MissingStepPolicy.FAIL;
     }
 
+    /**
+     * Returns the executor creating backups in the background.
+     *
+     * @return the backup executor, or null if backups are created synchronously
+     */
+    public @Nullable Executor getBackupExecutor() {
+        return backupExecutor;
+    }
+
+    /**
+     * Sets the executor creating backups in the background. When set, migrations that are given the
+     * raw content of the file (as {@code NTConfig} does) write the backup from that content on this
+     * executor while the migration steps run, and {@link MigrationHook#afterBackup} fires once the
+     * backup is on disk. Callers must wait for {@link RawMigrationResult#awaitBackup()} before
+     * rewriting the file. Null by default, which creates backups synchronously.
+     * <p>
+     * Either way, the content of a backup is flushed to the storage device before the migration
+     * completes, so the file can be rewritten afterwards. The directory entry of the backup is not
+     * flushed, and {@link re.neotamia.config.backup.BackupMode#LINK} backups share the content of
+     * the file instead of copying it.
+     *
+     * @param backupExecutor the executor to use, or null to create backups synchronously
+     */
+    public void setBackupExecutor(@Nullable Executor backupExecutor) {
+        this.backupExecutor = backupExecutor;
+    }
+
+    /**
+     * Returns the metrics receiving migration timings and counters.
+     *
+     * @return the metrics; never null
+     */
+    public @NotNull ConfigMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the metrics receiving migration timings and counters, and failures of migration hooks.
+     *
+     * @param metrics the metrics to use, or null to record nothing
+     */
+    public void setMetrics(@Nullable ConfigMetrics metrics) {
+        this.metrics = metrics != null ? metrics : ConfigMetrics.noop();
+    }
+
     /**
      * Returns the backup manager.
      *
@@ -151,6 +203,28 @@ public class ConfigMigrationManager {
      */
     public <T> @NotNull RawMigrationResult migrateRaw(@NotNull Path configPath, @NotNull Config rawConfig, @NotNull Class<T> configClass,
                                                       @NotNull T currentTemplate, @Nullable MergeStrategy strategy, @Nullable NamingStrategy namingStrategy) {
+        return migrateRaw(configPath, rawConfig, configClass, currentTemplate, strategy, namingStrategy, null);
+    }
+
+    /**
+     * Performs migration of a raw NightConfig tree using registered migration steps, given the
+     * content the tree was parsed from. When a {@link #setBackupExecutor(Executor) backup executor}
+     * is set, the backup is written from that content in the background; the returned result
+     * exposes it through {@link RawMigrationResult#backupFuture()}.
+     *
+     * @param configPath      the path to the configuration file
+     * @param rawConfig       the raw config to mutate
+     * @param configClass     the configuration class
+     * @param currentTemplate the current configuration template
+     * @param strategy        the merge strategy (for hooks and backup context)
+     * @param namingStrategy  the naming strategy used for serialization (nullable)
+     * @param rawContent      the content of the file as read, or null to back up the file itself
+     * @param <T>             the configuration type
+     * @return the raw migration result
+     */
+    public <T> @NotNull RawMigrationResult migrateRaw(@NotNull Path configPath, @NotNull Config rawConfig, @NotNull Class<T> configClass,
+                                                      @NotNull T currentTemplate, @Nullable MergeStrategy strategy, @Nullable NamingStrategy namingStrategy,
+                                                      byte @Nullable [] rawContent) {
         if (strategy == null) {
             strategy = defaultMergeStrategy;
         }
@@ -166,61 +240,59 @@ public class ConfigMigrationManager {
         }
 
         if (loadedVersion == null && currentVersion == null) {
-            callHooks(h -> h.onNoMigrationNeeded(configPath, null));
+            skipped(configPath, null);
             return new RawMigrationResult(rawConfig, false, null, null, null);
         }
 
         if (loadedVersion == null && currentVersion != null) {
-            loadedVersion = new MigrationVersion("1");
+            loadedVersion = MigrationVersion.of(1);
         }
 
         if (currentVersion != null && loadedVersion != null && loadedVersion.isEqualTo(currentVersion)) {
             final MigrationVersion finalCurrentVersion = currentVersion;
-            callHooks(h -> h.onNoMigrationNeeded(configPath, finalCurrentVersion));
+            skipped(configPath, finalCurrentVersion);
             return new RawMigrationResult(rawConfig, false, loadedVersion, currentVersion, null);
         }
 
         if (currentVersion == null || loadedVersion == null) {
-            callHooks(h -> h.onNoMigrationNeeded(configPath, null));
+            skipped(configPath, null);
             return new RawMigrationResult(rawConfig, false, loadedVersion, currentVersion, null);
         }
 
-        List<ConfigMigrationStep> steps = migrationRegistry.getSteps(configClass);
-        if (steps.isEmpty()) {
+        MigrationPlanTable planTable = migrationRegistry.getPlanTable(configClass);
+        if (planTable.isEmpty()) {
             if (loadedVersion.isEqualTo(currentVersion)) {
                 final MigrationVersion finalCurrentVersion = currentVersion;
-                callHooks(h -> h.onNoMigrationNeeded(configPath, finalCurrentVersion));
+                skipped(configPath, finalCurrentVersion);
                 return new RawMigrationResult(rawConfig, false, loadedVersion, currentVersion, null);
             }
             final MigrationVersion finalLoadedVersion = loadedVersion;
             final MigrationVersion finalCurrentVersion = currentVersion;
             final MergeStrategy finalStrategy = strategy;
+            long start = System.nanoTime();
             try {
                 callHooks(h -> h.beforeMigration(configPath, finalLoadedVersion, finalCurrentVersion, finalStrategy));
-                Path backupPath = null;
-                if (backupManager.enabled())
-                    backupPath = backupManager.createBackup(configPath, loadedVersion);
-                final Path finalBackupPath = backupPath;
-                callHooks(h -> h.afterBackup(configPath, finalBackupPath, finalLoadedVersion, finalCurrentVersion));
+                CompletableFuture<Path> backup = backup(configPath, rawContent, finalLoadedVersion, finalCurrentVersion);
                 VersionUtils.setVersion(rawConfig, configClass, namingStrategy, currentVersion);
-                callHooks(h -> h.afterMigration(configPath, finalBackupPath, finalLoadedVersion, finalCurrentVersion, finalStrategy));
-                return new RawMigrationResult(rawConfig, true, loadedVersion, currentVersion, backupPath);
+                return new RawMigrationResult(rawConfig, true, loadedVersion, currentVersion, completedPath(backup),
+                        complete(backup, configPath, finalLoadedVersion, finalCurrentVersion, finalCurrentVersion, finalStrategy, start));
             } catch (Exception e) {
+                metrics.migrationFailed(configPath, e);
                 callHooks(h -> h.onMigrationFailed(configPath, finalLoadedVersion, finalCurrentVersion, finalStrategy, e));
                 throw new RuntimeException("Migration failed for " + configPath, e);
             }
         }
 
-        MigrationPlan plan = buildPlan(steps, loadedVersion, currentVersion);
+        MigrationPlanTable.Plan plan = planTable.plan(loadedVersion, currentVersion);
         if (!plan.reachedTarget() && missingStepPolicy == MissingStepPolicy.FAIL) {
-            throw new RuntimeException("Missing migration step for version " + plan.finalVersion() + " -> " + currentVersion);
+            throw missingStep(configPath, plan.finalVersion(), currentVersion);
         }
         if (plan.steps().isEmpty()) {
             if (missingStepPolicy == MissingStepPolicy.FAIL) {
-                throw new RuntimeException("Missing migration step for version " + loadedVersion + " -> " + currentVersion);
+                throw missingStep(configPath, loadedVersion, currentVersion);
             }
             final MigrationVersion finalLoadedVersion = loadedVersion;
-            callHooks(h -> h.onNoMigrationNeeded(configPath, finalLoadedVersion));
+            skipped(configPath, finalLoadedVersion);
             return new RawMigrationResult(rawConfig, false, loadedVersion, loadedVersion, null);
         }
 
@@ -228,20 +300,18 @@ public class ConfigMigrationManager {
         final MigrationVersion finalCurrentVersion = currentVersion;
         final MergeStrategy finalStrategy = strategy;
 
+        long start = System.nanoTime();
         try {
             callHooks(h -> h.beforeMigration(configPath, finalLoadedVersion, finalCurrentVersion, finalStrategy));
 
-            Path backupPath = null;
-            if (backupManager.enabled())
-                backupPath = backupManager.createBackup(configPath, loadedVersion);
-
-            final Path finalBackupPath = backupPath;
-            callHooks(h -> h.afterBackup(configPath, finalBackupPath, finalLoadedVersion, finalCurrentVersion));
+            CompletableFuture<Path> backup = backup(configPath, rawContent, finalLoadedVersion, finalCurrentVersion);
 
             MigrationVersion versionCursor = loadedVersion;
             boolean migrated = false;
             for (ConfigMigrationStep step : plan.steps()) {
+                long stepStart = System.nanoTime();
                 step.migrate(rawConfig);
+                metrics.stepCompleted(configPath, step, System.nanoTime() - stepStart);
                 migrated = true;
                 versionCursor = step.toVersion();
             }
@@ -252,22 +322,87 @@ public class ConfigMigrationManager {
                 resultVersion = currentVersion;
             }
 
-            callHooks(h -> h.afterMigration(configPath, finalBackupPath, finalLoadedVersion, finalCurrentVersion, finalStrategy));
-            return new RawMigrationResult(rawConfig, migrated, loadedVersion, resultVersion, backupPath);
+            return new RawMigrationResult(rawConfig, migrated, loadedVersion, resultVersion, completedPath(backup),
+                    complete(backup, configPath, finalLoadedVersion, finalCurrentVersion, resultVersion, finalStrategy, start));
 
         } catch (Exception e) {
+            metrics.migrationFailed(configPath, e);
             callHooks(h -> h.onMigrationFailed(configPath, finalLoadedVersion, finalCurrentVersion, finalStrategy, e));
             throw new RuntimeException("Migration failed for " + configPath, e);
         }
     }
 
+    private void skipped(@NotNull Path configPath, @Nullable MigrationVersion version) {
+        metrics.migrationSkipped(configPath, version);
+        callHooks(h -> h.onNoMigrationNeeded(configPath, version));
+    }
+
+    private @NotNull RuntimeException missingStep(@NotNull Path configPath, @NotNull MigrationVersion from, @NotNull MigrationVersion to) {
+        RuntimeException failure = new RuntimeException("Missing migration step for version " + from + " -> " + to);
+        metrics.migrationFailed(configPath, failure);
+        return failure;
+    }
+
+    /**
+     * Starts the backup of a file about to be migrated and fires {@link MigrationHook#afterBackup}
+     * once it is done, on the backup executor for asynchronous backups.
+     */
+    private @NotNull CompletableFuture<Path> backup(@NotNull Path configPath, byte @Nullable [] rawContent,
+                                                     @NotNull MigrationVersion from, @NotNull MigrationVersion to) throws IOException {
+        Executor executor = backupExecutor;
+        if (!backupManager.enabled() || executor == null || rawContent == null) {
+            long start = System.nanoTime();
+            Path backupPath = backupManager.enabled() ? backupManager.createBackup(configPath, from) : null;
+            metrics.backupCreated(configPath, backupPath, System.nanoTime() - start);
+            callHooks(h -> h.afterBackup(configPath, backupPath, from, to));
+            return CompletableFuture.completedFuture(backupPath);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                long start = System.nanoTime();
+                Path backupPath = backupManager.createBackup(configPath, rawContent, from);
+                metrics.backupCreated(configPath, backupPath, System.nanoTime() - start);
+                callHooks(h -> h.afterBackup(configPath, backupPath, from, to));
+                return backupPath;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Reports the migration as completed and fires {@link MigrationHook#afterMigration} once both the
+     * migration steps and the backup are done, or reports it as failed and fires
+     * {@link MigrationHook#onMigrationFailed} if the backup failed.
+     */
+    private @NotNull CompletableFuture<Path> complete(@NotNull CompletableFuture<Path> backup, @NotNull Path configPath,
+                                                       @NotNull MigrationVersion from, @NotNull MigrationVersion to,
+                                                       @NotNull MigrationVersion reached, @NotNull MergeStrategy strategy, long start) {
+        return backup.whenComplete((backupPath, failure) -> {
+            if (failure == null) {
+                metrics.migrationCompleted(configPath, from, reached, System.nanoTime() - start);
+                callHooks(h -> h.afterMigration(configPath, backupPath, from, to, strategy));
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            Exception exception = cause instanceof UncheckedIOException unchecked ? unchecked.getCause()
+                    : cause instanceof Exception e ? e : new RuntimeException(cause);
+            metrics.migrationFailed(configPath, exception);
+            callHooks(h -> h.onMigrationFailed(configPath, from, to, strategy, exception));
+        });
+    }
+
+    private static @Nullable Path completedPath(@NotNull CompletableFuture<Path> backup) {
+        return backup.isDone() && !backup.isCompletedExceptionally() ? backup.join() : null;
+    }
+
     private void callHooks(@NotNull HookConsumer consumer) {
         for (MigrationHook hook : hooks) {
             try {
                 consumer.accept(hook);
             } catch (Exception e) {
-                // Log hook errors but don't fail migration
-                System.err.println("Migration hook failed: " + e.getMessage());
+                // Report hook errors but don't fail migration
+                metrics.hookFailed(hook, e);
             }
         }
     }
@@ -277,35 +412,6 @@ public class ConfigMigrationManager {
         void accept(MigrationHook hook);
     }
 
-    private @NotNull MigrationPlan buildPlan(@NotNull List<ConfigMigrationStep> steps, @NotNull MigrationVersion from, @NotNull MigrationVersion target) {
-        if (from.isNewerThan(target)) {
-            throw new IllegalArgumentException("Cannot migrate from newer version " + from + " to older version " + target);
-        }
-        Map<MigrationVersion, ConfigMigrationStep> byFrom = new HashMap<>();
-        for (ConfigMigrationStep step : steps) {
-            ConfigMigrationStep existing = byFrom.put(step.fromVersion(), step);
-            if (existing != null) {
-                throw new IllegalArgumentException("Duplicate migration step for version " + step.fromVersion());
-            }
-        }
-        List<ConfigMigrationStep> plan = new ArrayList<>();
-        MigrationVersion cursor = from;
-        boolean reachedTarget = cursor.isEqualTo(target);
-        while (!reachedTarget) {
-            ConfigMigrationStep step = byFrom.get(cursor);
-            if (step == null) break;
-            if (!step.toVersion().isNewerThan(cursor)) {
-                throw new IllegalArgumentException("Migration step " + step.description() + " does not advance version");
-            }
-            plan.add(step);
-            cursor = step.toVersion();
-            reachedTarget = cursor.isEqualTo(target);
-        }
-        return new MigrationPlan(plan, cursor, reachedTarget);
-    }
-
-    private record MigrationPlan(@NotNull List<ConfigMigrationStep> steps, @NotNull MigrationVersion finalVersion, boolean reachedTarget) {}
-
     /**
      * Result of a migration operation.
      *
@@ -315,8 +421,23 @@ public class ConfigMigrationManager {
      * @param oldVersion the version before migration
      * @param newVersion the version after migration
      * @param backupPath the backup path, if any
+     * @param written    whether the configuration file was written
      */
-    public record MigrationResult<T>(T config, boolean migrated, MigrationVersion oldVersion, MigrationVersion newVersion, Path backupPath) {
+    public record MigrationResult<T>(T config, boolean migrated, MigrationVersion oldVersion, MigrationVersion newVersion, Path backupPath,
+                                     boolean written) {
+        /**
+         * Creates a migration result that did not write the configuration file.
+         *
+         * @param config     the migrated configuration instance
+         * @param migrated   whether migration was performed
+         * @param oldVersion the version before migration
+         * @param newVersion the version after migration
+         * @param backupPath the backup path, if any
+         */
+        public MigrationResult(T config, boolean migrated, MigrationVersion oldVersion, MigrationVersion newVersion, Path backupPath) {
+            this(config, migrated, oldVersion, newVersion, backupPath, false);
+        }
+
         /**
          * Returns whether migration was performed.
          *
@@ -335,6 +456,16 @@ public class ConfigMigrationManager {
             return backupPath != null;
         }
 
+        /**
+         * Returns whether the configuration file was written. False when nothing needed to be saved
+         * or when the file already held the serialized content.
+         *
+         * @return true if the file was written
+         */
+        public boolean wasWritten() {
+            return written;
+        }
+
         @Override
         public @NotNull String toString() {
             return "MigrationResult{" +
@@ -343,6 +474,7 @@ public class ConfigMigrationManager {
                     ", oldVersion=" + oldVersion +
                     ", newVersion=" + newVersion +
                     ", backupPath=" + backupPath +
+                    ", written=" + written +
                     '}';
         }
     }
@@ -354,10 +486,40 @@ public class ConfigMigrationManager {
      * @param migrated   whether migration was performed
      * @param oldVersion the version before migration
      * @param newVersion the version after migration
-     * @param backupPath the backup path, if any
+     * @param backupPath   the backup path, if any; null while an asynchronous backup is still running
+     * @param backupFuture completes with the backup path (or null) once the backup is on disk
      */
     public record RawMigrationResult(@NotNull Config config, boolean migrated, @Nullable MigrationVersion oldVersion,
-                                     @Nullable MigrationVersion newVersion, @Nullable Path backupPath) {
+                                     @Nullable MigrationVersion newVersion, @Nullable Path backupPath,
+                                     @NotNull CompletableFuture<Path> backupFuture) {
+        /**
+         * Creates a result whose backup, if any, is already complete.
+         *
+         * @param config     the raw config instance
+         * @param migrated   whether migration was performed
+         * @param oldVersion the version before migration
+         * @param newVersion the version after migration
+         * @param backupPath the backup path, if any
+         */
+        public RawMigrationResult(@NotNull Config config, boolean migrated, @Nullable MigrationVersion oldVersion,
+                                  @Nullable MigrationVersion newVersion, @Nullable Path backupPath) {
+            this(config, migrated, oldVersion, newVersion, backupPath, CompletableFuture.completedFuture(backupPath));
+        }
+
+        /**
+         * Waits for the backup to be on disk. The configuration file must not be rewritten before.
+         *
+         * @return the backup path, or null if no backup was created
+         * @throws RuntimeException if the backup failed
+         */
+        public @Nullable Path awaitBackup() {
+            try {
+                return backupFuture.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("Backup failed", e.getCause());
+            }
+        }
+
         /**
          * Returns whether migration was performed.
          *
@@ -368,12 +530,12 @@ public class ConfigMigrationManager {
         }
 
         /**
-         * Returns whether a backup was created.
+         * Returns whether a backup was created. Asynchronous backups count once they are complete.
          *
          * @return true if a backup exists
          */
         public boolean hasBackup() {
-            return backupPath != null;
+            return backupPath != null || completedPath(backupFuture) != null;
         }
     }
 }
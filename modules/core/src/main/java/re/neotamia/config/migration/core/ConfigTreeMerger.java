@@ -1,6 +1,7 @@
 package re.neotamia.config.migration.core;
 
 import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.jfr.ConfigMergeEvent;
 import re.neotamia.nightconfig.core.Config;
 
 import java.util.ArrayList;
@@ -42,7 +43,10 @@ public final class ConfigTreeMerger {
      * @return the merge result
      */
     public @NotNull MergeResult mergeMissingOnly(@NotNull Config target, @NotNull Config defaults) {
+        ConfigMergeEvent event = new ConfigMergeEvent();
+        event.begin();
         boolean changed = mergeMissingRecursive(target, defaults);
+        commit(event, "mergeMissingOnly", defaults, changed);
         return new MergeResult(target, changed);
     }
 
@@ -54,11 +58,54 @@ public final class ConfigTreeMerger {
      * @return a new merged config
      */
     public @NotNull Config mergeWithDefaults(@NotNull Config defaults, @NotNull Config overrides) {
+        ConfigMergeEvent event = new ConfigMergeEvent();
+        event.begin();
         Config result = deepCopy(defaults);
         overlayRecursive(result, overrides);
+        commit(event, "mergeWithDefaults", defaults, true);
         return result;
     }
 
+    /**
+     * Creates a read-through view that resolves keys from {@code overrides} first and falls back to
+     * {@code defaults}, with the same result as {@link #mergeWithDefaults(Config, Config)} but
+     * without copying either tree.
+     * <p>
+     * Neither config is modified: values written to the view are kept in the view itself. The view
+     * reflects later changes of the underlying configs, so it should be used while they are not
+     * being modified.
+     *
+     * @param defaults  the defaults to fall back to
+     * @param overrides values that override defaults
+     * @return a layered view of both configs
+     */
+    public @NotNull Config layer(@NotNull Config defaults, @NotNull Config overrides) {
+        ConfigMergeEvent event = new ConfigMergeEvent();
+        event.begin();
+        Config layered = LayeredConfigMap.layer(defaults, overrides);
+        commit(event, "layer", defaults, true);
+        return layered;
+    }
+
+    /**
+     * Creates a read-through view of {@code config} whose writes are kept in the view itself, so that
+     * a config shared between callers can be handed out without copying it.
+     *
+     * @param config the config to read through
+     * @return a view that never modifies {@code config}
+     */
+    public static @NotNull Config view(@NotNull Config config) {
+        return LayeredConfigMap.view(config);
+    }
+
+    private static void commit(@NotNull ConfigMergeEvent event, @NotNull String operation, @NotNull Config defaults, boolean merged) {
+        if (!event.shouldCommit()) return;
+        event.operation = operation;
+        event.defaultEntries = defaults.size();
+        event.merged = merged;
+        event.commit();
+    }
+
     private boolean mergeMissingRecursive(@NotNull Config target, @NotNull Config defaults) {
         boolean changed = false;
         for (var entry : defaults.entrySet()) {
@@ -0,0 +1,242 @@
+package re.neotamia.config.migration.core;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.nightconfig.core.Config;
+import re.neotamia.nightconfig.core.ConfigFormat;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read-through value map of a layered config: keys resolve from the overrides first and fall back
+ * to the defaults. Sections are exposed as nested layered configs created on first access, with an
+ * empty other side when the section only exists in one layer.
+ * <p>
+ * Neither layer is ever modified. Writes and removals are kept in a local layer of this map, and
+ * lists are copied into that layer when they are first read, since they are mutable in place.
+ */
+final class LayeredConfigMap extends AbstractMap<String, Object> {
+    private static final Object REMOVED = new Object();
+
+    private final @NotNull Map<String, Object> overrides;
+    private final @NotNull Map<String, Object> defaults;
+    private final @NotNull ConfigFormat<?> format;
+    private @Nullable Map<String, Object> writes;
+    private @Nullable Map<String, Config> sections;
+
+    LayeredConfigMap(@NotNull Map<String, Object> overrides, @NotNull Map<String, Object> defaults, @NotNull ConfigFormat<?> format) {
+        this.overrides = overrides;
+        this.defaults = defaults;
+        this.format = format;
+    }
+
+    /**
+     * Creates a config view that layers {@code overrides} on top of {@code defaults}.
+     *
+     * @param defaults  the fallback layer
+     * @param overrides the layer read first
+     * @return the layered config
+     */
+    static @NotNull Config layer(@NotNull Config defaults, @NotNull Config overrides) {
+        ConfigFormat<?> format = overrides.configFormat() != null ? overrides.configFormat() : defaults.configFormat();
+        return Config.wrap(new LayeredConfigMap(overrides.valueMap(), defaults.valueMap(), format), format);
+    }
+
+    /**
+     * Creates a config view of {@code source} that keeps every write in the view itself.
+     *
+     * @param source the config to read through
+     * @return the view
+     */
+    static @NotNull Config view(@NotNull Config source) {
+        ConfigFormat<?> format = source.configFormat();
+        return Config.wrap(new LayeredConfigMap(Collections.emptyMap(), source.valueMap(), format), format);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (writes != null && writes.containsKey(key)) {
+            Object written = writes.get(key);
+            return written == REMOVED ? null : written;
+        }
+        Object override = overrides.get(key);
+        if (override instanceof Config overrideSection && defaults.get(key) instanceof Config defaultSection)
+            return section((String) key, overrideSection.valueMap(), defaultSection.valueMap());
+        Object value = override != null || overrides.containsKey(key) ? override : defaults.get(key);
+        if (value instanceof Config single)
+            return section((String) key, single.valueMap(), Collections.emptyMap());
+        if (value instanceof List<?> list) {
+            Object copy = copyValue(list);
+            writes().put((String) key, copy);
+            return copy;
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (writes != null && writes.containsKey(key))
+            return writes.get(key) != REMOVED;
+        return overrides.containsKey(key) || defaults.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = get(key);
+        writes().put(key, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) return null;
+        Object previous = get(key);
+        writes().put((String) key, REMOVED);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Map<String, Object> writes = writes();
+        for (String key : keys()) {
+            writes.put(key, REMOVED);
+        }
+    }
+
+    @Override
+    public int size() {
+        return keys().size();
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<Entry<String, Object>> iterator() {
+                Iterator<String> keys = new ArrayList<>(keys()).iterator();
+                return new Iterator<>() {
+                    private @Nullable String current;
+
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!keys.hasNext()) throw new NoSuchElementException();
+                        String key = keys.next();
+                        current = key;
+                        return new LayeredEntry(key);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (current == null) throw new IllegalStateException();
+                        LayeredConfigMap.this.remove(current);
+                        current = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return LayeredConfigMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Returns the visible keys in the order a deep merge would produce: defaults first, then keys
+     * only present in the overrides, then keys only written to this view.
+     */
+    private @NotNull Set<String> keys() {
+        Set<String> keys = new LinkedHashSet<>(defaults.keySet());
+        keys.addAll(overrides.keySet());
+        if (writes != null) {
+            for (Map.Entry<String, Object> entry : writes.entrySet()) {
+                if (entry.getValue() == REMOVED) keys.remove(entry.getKey());
+                else keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    private @NotNull Config section(@NotNull String key, @NotNull Map<String, Object> overrideSection, @NotNull Map<String, Object> defaultSection) {
+        if (sections == null) sections = new HashMap<>();
+        return sections.computeIfAbsent(key, k -> view(overrideSection, defaultSection));
+    }
+
+    private @NotNull Config view(@NotNull Map<String, Object> overrideSection, @NotNull Map<String, Object> defaultSection) {
+        return Config.wrap(new LayeredConfigMap(overrideSection, defaultSection, format), format);
+    }
+
+    /**
+     * Copies a value read from one of the layers so that changing the copy leaves the layer intact.
+     * Sections inside lists become views over the original section.
+     */
+    private Object copyValue(Object value) {
+        if (value instanceof Config configValue)
+            return view(configValue.valueMap(), Collections.emptyMap());
+        if (value instanceof List<?> listValue) {
+            List<Object> copy = new ArrayList<>(listValue.size());
+            for (Object item : listValue) {
+                copy.add(copyValue(item));
+            }
+            return copy;
+        }
+        if (value instanceof Map<?, ?> mapValue)
+            return new LinkedHashMap<>(mapValue);
+        return value;
+    }
+
+    private @NotNull Map<String, Object> writes() {
+        if (writes == null) writes = new LinkedHashMap<>();
+        return writes;
+    }
+
+    private final class LayeredEntry implements Entry<String, Object> {
+        private final @NotNull String key;
+
+        private LayeredEntry(@NotNull String key) {
+            this.key = key;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry<?, ?> entry && key.equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+    }
+}
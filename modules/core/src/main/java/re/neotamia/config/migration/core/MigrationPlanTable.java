@@ -0,0 +1,115 @@
+package re.neotamia.config.migration.core;
+
+import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.migration.step.ConfigMigrationStep;
+import re.neotamia.config.migration.version.MigrationVersion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, pre-validated index of the migration steps of a configuration class.
+ * <p>
+ * Steps are indexed by source version when the table is compiled, which rejects duplicate source
+ * versions and steps that do not advance the version. Plans are resolved once per
+ * (source, target) pair and then served from memory.
+ */
+public final class MigrationPlanTable {
+    /**
+     * Table without any step.
+     */
+    public static final MigrationPlanTable EMPTY = new MigrationPlanTable(List.of());
+
+    private final @NotNull List<ConfigMigrationStep> steps;
+    private final @NotNull Map<MigrationVersion, ConfigMigrationStep> stepsBySource;
+    private final @NotNull Map<PlanKey, Plan> plans = new ConcurrentHashMap<>();
+
+    private MigrationPlanTable(@NotNull List<ConfigMigrationStep> steps) {
+        Map<MigrationVersion, ConfigMigrationStep> bySource = new HashMap<>();
+        for (ConfigMigrationStep step : steps) {
+            if (!step.toVersion().isNewerThan(step.fromVersion()))
+                throw new IllegalArgumentException("Migration step " + step.description() + " does not advance version");
+            ConfigMigrationStep existing = bySource.put(step.fromVersion(), step);
+            if (existing != null)
+                throw new IllegalArgumentException("Duplicate migration step for version " + step.fromVersion());
+        }
+        this.steps = List.copyOf(steps);
+        this.stepsBySource = Map.copyOf(bySource);
+    }
+
+    /**
+     * Compiles and validates a plan table.
+     *
+     * @param steps the migration steps of a configuration class
+     * @return the compiled table
+     * @throws IllegalArgumentException if two steps share a source version or a step does not advance the version
+     */
+    public static @NotNull MigrationPlanTable compile(@NotNull Collection<? extends ConfigMigrationStep> steps) throws IllegalArgumentException {
+        if (steps.isEmpty()) return EMPTY;
+        return new MigrationPlanTable(List.copyOf(steps));
+    }
+
+    /**
+     * Returns the steps of this table, in registration order.
+     *
+     * @return an immutable list of steps
+     */
+    public @NotNull List<ConfigMigrationStep> steps() {
+        return steps;
+    }
+
+    /**
+     * Returns whether the table has no step.
+     *
+     * @return true if no step is registered
+     */
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    /**
+     * Returns the chain of steps migrating from a version towards a target version.
+     *
+     * @param from   the version of the loaded configuration
+     * @param target the version to reach
+     * @return the plan, which may stop before the target if a step is missing
+     * @throws IllegalArgumentException if {@code from} is newer than {@code target}
+     */
+    public @NotNull Plan plan(@NotNull MigrationVersion from, @NotNull MigrationVersion target) throws IllegalArgumentException {
+        if (from.isNewerThan(target))
+            throw new IllegalArgumentException("Cannot migrate from newer version " + from + " to older version " + target);
+        // Only versions that start a chain are memoized, so unknown versions read from files cannot grow the cache
+        if (!stepsBySource.containsKey(from))
+            return new Plan(List.of(), from, from.isEqualTo(target));
+        return plans.computeIfAbsent(new PlanKey(from, target), this::resolve);
+    }
+
+    private @NotNull Plan resolve(@NotNull PlanKey key) {
+        List<ConfigMigrationStep> chain = new ArrayList<>();
+        MigrationVersion cursor = key.from();
+        boolean reachedTarget = cursor.isEqualTo(key.target());
+        while (!reachedTarget) {
+            ConfigMigrationStep step = stepsBySource.get(cursor);
+            if (step == null) break;
+            chain.add(step);
+            cursor = step.toVersion();
+            reachedTarget = cursor.isEqualTo(key.target());
+        }
+        return new Plan(List.copyOf(chain), cursor, reachedTarget);
+    }
+
+    /**
+     * Resolved migration chain.
+     *
+     * @param steps         the steps to apply, in order
+     * @param finalVersion  the version reached after applying every step
+     * @param reachedTarget whether the final version is the requested target
+     */
+    public record Plan(@NotNull List<ConfigMigrationStep> steps, @NotNull MigrationVersion finalVersion, boolean reachedTarget) {}
+
+    private record PlanKey(@NotNull MigrationVersion from, @NotNull MigrationVersion target) {}
+}
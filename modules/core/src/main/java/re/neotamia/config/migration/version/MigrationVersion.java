@@ -3,13 +3,27 @@ package re.neotamia.config.migration.version;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a configuration version that can be compared for migration purposes.
  * Supports both integer and semantic versioning.
+ * <p>
+ * Prefer the {@link #of(String)} and {@link #of(int)} factories, which share instances of common versions.
  */
 public class MigrationVersion implements Comparable<MigrationVersion> {
+    private static final int MAX_INTERNED = 1024;
+    private static final MigrationVersion[] SMALL_VERSIONS = new MigrationVersion[128];
+    private static final Map<String, MigrationVersion> INTERNED = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < SMALL_VERSIONS.length; i++) {
+            SMALL_VERSIONS[i] = new MigrationVersion(i);
+        }
+    }
+
     private final @NotNull String version;
     private final int major;
     private final int minor;
@@ -20,26 +34,46 @@ public class MigrationVersion implements Comparable<MigrationVersion> {
      * Creates a version from a string (integer or semantic).
      *
      * @param version the version string
+     * @throws IllegalArgumentException if the string is neither an integer nor a {@code major.minor.patch} version
      */
     public MigrationVersion(@NotNull String version) {
         this.version = Objects.requireNonNull(version, "Version cannot be null");
 
-        // Try to parse as semantic version (major.minor.patch)
-        if (version.matches("\\d+\\.\\d+\\.\\d+")) {
-            String[] parts = version.split("\\.");
-            this.major = Integer.parseInt(parts[0]);
-            this.minor = Integer.parseInt(parts[1]);
-            this.patch = Integer.parseInt(parts[2]);
-            this.isSemanticVersion = true;
-        } else if (version.matches("\\d+")) {
-            // Integer version
-            this.major = Integer.parseInt(version);
-            this.minor = 0;
-            this.patch = 0;
-            this.isSemanticVersion = false;
-        } else {
-            throw new IllegalArgumentException("Version must be either an integer or semantic version (major.minor.patch): " + version);
+        // Hand-written equivalent of matching \d+ or \d+\.\d+\.\d+, without compiling regexes or splitting
+        int major = 0;
+        int minor = 0;
+        int patch = 0;
+        int value = 0;
+        int parts = 0;
+        int start = 0;
+        int length = version.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? version.charAt(i) : '.';
+            if (c == '.') {
+                if (i == start || parts == 3)
+                    throw invalid(version);
+                switch (parts++) {
+                    case 0 -> major = value;
+                    case 1 -> minor = value;
+                    default -> patch = value;
+                }
+                start = i + 1;
+                value = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (value > (Integer.MAX_VALUE - (c - '0')) / 10)
+                    throw invalid(version);
+                value = value * 10 + (c - '0');
+            } else {
+                throw invalid(version);
+            }
         }
+        if (parts != 1 && parts != 3)
+            throw invalid(version);
+
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.isSemanticVersion = parts == 3;
     }
 
     /**
@@ -166,11 +200,46 @@ public class MigrationVersion implements Comparable<MigrationVersion> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(major, minor, patch);
+        // Same value as Objects.hash(major, minor, patch), without the varargs array
+        return 31 * (31 * (31 + major) + minor) + patch;
     }
 
     @Override
     public String toString() {
         return version;
     }
+
+    /**
+     * Returns a version for the given string, reusing a shared instance for versions seen before.
+     *
+     * @param version the version string
+     * @return the version; never null
+     * @throws IllegalArgumentException if the string is neither an integer nor a {@code major.minor.patch} version
+     */
+    public static @NotNull MigrationVersion of(@NotNull String version) {
+        MigrationVersion cached = INTERNED.get(version);
+        if (cached != null) return cached;
+        MigrationVersion parsed = new MigrationVersion(version);
+        // Versions come from files, keep the pool bounded so arbitrary strings cannot grow it forever
+        if (INTERNED.size() < MAX_INTERNED) {
+            MigrationVersion previous = INTERNED.putIfAbsent(version, parsed);
+            if (previous != null) return previous;
+        }
+        return parsed;
+    }
+
+    /**
+     * Returns an integer version, reusing a shared instance for small values.
+     *
+     * @param version the major version
+     * @return the version; never null
+     */
+    public static @NotNull MigrationVersion of(int version) {
+        if (version >= 0 && version < SMALL_VERSIONS.length) return SMALL_VERSIONS[version];
+        return new MigrationVersion(version);
+    }
+
+    private static @NotNull IllegalArgumentException invalid(@NotNull String version) {
+        return new IllegalArgumentException("Version must be either an integer or semantic version (major.minor.patch): " + version);
+    }
 }
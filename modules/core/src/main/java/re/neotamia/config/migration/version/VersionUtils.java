@@ -15,7 +15,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Utility class for working with configuration versions.
  */
 public class VersionUtils {
-    private static final ConcurrentHashMap<Class<?>, Optional<Field>> VERSION_FIELDS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Class<?>, Optional<VersionField>> VERSION_FIELDS = new ConcurrentHashMap<>();
     /**
      * Utility class for version helpers.
      */
@@ -32,19 +32,16 @@ public class VersionUtils {
         if (config == null) return null;
 
         Class<?> clazz = config.getClass();
-        Field versionField = findVersionField(clazz);
+        VersionField versionField = versionField(clazz);
 
         if (versionField == null) return null;
 
         try {
-            versionField.setAccessible(true);
-            Object value = versionField.get(config);
+            Object value = versionField.field().get(config);
 
             if (value == null) {
                 // Use default version from annotation
-                ConfigVersion annotation = versionField.getAnnotation(ConfigVersion.class);
-                String defaultVersion = annotation.defaultVersion();
-                return new MigrationVersion(defaultVersion);
+                return versionField.defaultVersion();
             }
 
             return convertToConfigVersion(value);
@@ -81,14 +78,13 @@ public class VersionUtils {
         if (config == null || version == null) return;
 
         Class<?> clazz = config.getClass();
-        Field versionField = findVersionField(clazz);
+        VersionField versionField = versionField(clazz);
 
         if (versionField == null) return;
 
         try {
-            versionField.setAccessible(true);
-            Object value = convertFromConfigVersion(version, versionField.getType());
-            versionField.set(config, value);
+            Object value = convertFromConfigVersion(version, versionField.field().getType());
+            versionField.field().set(config, value);
         } catch (IllegalAccessException e) {
             throw new RuntimeException("Failed to set version in config", e);
         }
@@ -119,16 +115,8 @@ public class VersionUtils {
      * @return the version field, or null if not found
      */
     public static @Nullable Field findVersionField(@NotNull Class<?> clazz) {
-        Optional<Field> cached = VERSION_FIELDS.computeIfAbsent(clazz, key -> {
-            for (Field field : key.getDeclaredFields()) {
-                if (Modifier.isStatic(field.getModifiers())) continue;
-                if (field.isAnnotationPresent(ConfigVersion.class)) {
-                    return Optional.of(field);
-                }
-            }
-            return Optional.empty();
-        });
-        return cached.orElse(null);
+        VersionField versionField = versionField(clazz);
+        return versionField != null ? versionField.field() : null;
     }
 
     /**
@@ -148,22 +136,65 @@ public class VersionUtils {
      * @return the default version, or null if no version field exists
      */
     public static @Nullable MigrationVersion getDefaultVersion(@NotNull Class<?> clazz) {
-        Field versionField = findVersionField(clazz);
+        VersionField versionField = versionField(clazz);
         if (versionField == null) return null;
+        return versionField.defaultVersion();
+    }
 
-        ConfigVersion annotation = versionField.getAnnotation(ConfigVersion.class);
-        return new MigrationVersion(annotation.defaultVersion());
+    private static @Nullable VersionField versionField(@NotNull Class<?> clazz) {
+        return VERSION_FIELDS.computeIfAbsent(clazz, VersionUtils::resolveVersionField).orElse(null);
+    }
+
+    private static @NotNull Optional<VersionField> resolveVersionField(@NotNull Class<?> clazz) {
+        for (Field field : clazz.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) continue;
+            ConfigVersion annotation = field.getAnnotation(ConfigVersion.class);
+            if (annotation == null) continue;
+            try {
+                field.setAccessible(true);
+            } catch (RuntimeException ignored) {
+                // Reported as an IllegalAccessException when the field is read or written
+            }
+            MigrationVersion defaultVersion = null;
+            try {
+                defaultVersion = MigrationVersion.of(annotation.defaultVersion());
+            } catch (IllegalArgumentException ignored) {
+                // Invalid defaults are reported when the default version is requested
+            }
+            return Optional.of(new VersionField(field, annotation.defaultVersion(), defaultVersion));
+        }
+        return Optional.empty();
     }
 
-    private static @NotNull MigrationVersion convertToConfigVersion(@NotNull Object value) {
+    /**
+     * Converts a raw version value, as stored in a config tree, into a version.
+     *
+     * @param value the raw value, a {@link String} or a {@link Number}
+     * @return the version
+     * @throws IllegalArgumentException if the value is not a valid version
+     */
+    public static @NotNull MigrationVersion convertToConfigVersion(@NotNull Object value) {
         return switch (value) {
-            case String s -> new MigrationVersion(s);
-            case Integer i -> new MigrationVersion(i);
-            case Number number -> new MigrationVersion(number.intValue());
+            case String s -> MigrationVersion.of(s);
+            case Integer i -> MigrationVersion.of(i);
+            case Number number -> MigrationVersion.of(number.intValue());
             default -> throw new IllegalArgumentException("Version field must be String, int, or Integer, but was: " + value.getClass().getName());
         };
     }
 
+    /**
+     * Cached version field of a configuration class with its parsed default version.
+     *
+     * @param field               the accessible version field
+     * @param defaultVersionValue the raw default version from the annotation
+     * @param parsedDefault       the parsed default version, or null if the raw value is invalid
+     */
+    private record VersionField(@NotNull Field field, @NotNull String defaultVersionValue, @Nullable MigrationVersion parsedDefault) {
+        @NotNull MigrationVersion defaultVersion() {
+            return parsedDefault != null ? parsedDefault : MigrationVersion.of(defaultVersionValue);
+        }
+    }
+
     private static Object convertFromConfigVersion(@NotNull MigrationVersion version, @NotNull Class<?> fieldType) {
         if (fieldType == String.class)
             return version.getVersion();
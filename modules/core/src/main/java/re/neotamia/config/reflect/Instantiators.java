@@ -0,0 +1,111 @@
+package re.neotamia.config.reflect;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Per-class cache of no-argument constructors used to create configuration instances.
+ * <p>
+ * The constructor lookup and access checks run once per class. The resulting instantiator is
+ * a {@link LambdaMetafactory} generated {@link Supplier} when the class can be linked that way,
+ * or a {@link MethodHandle} invocation otherwise, so the hot path never goes through
+ * {@link Constructor#newInstance(Object...)}.
+ */
+public final class Instantiators {
+    private static final MethodType SUPPLIER_FACTORY = MethodType.methodType(Supplier.class);
+    private static final MethodType SUPPLIER_GET = MethodType.methodType(Object.class);
+    private static final MethodType NO_ARG_CONSTRUCTOR = MethodType.methodType(void.class);
+
+    private static final ClassValue<Supplier<?>> INSTANTIATORS = new ClassValue<>() {
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            return createInstantiator(type);
+        }
+    };
+
+    /**
+     * Utility class.
+     */
+    private Instantiators() {}
+
+    /**
+     * Creates a new instance of the given class using its no-argument constructor.
+     *
+     * @param clazz the class to instantiate; must not be null
+     * @param <T>   the type of the instance
+     * @return a new instance of the class; never null
+     * @throws RuntimeException if the class has no usable no-argument constructor or the constructor fails
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NotNull T newInstance(@NotNull Class<T> clazz) throws RuntimeException {
+        try {
+            return (T) INSTANTIATORS.get(clazz).get();
+        } catch (Exception e) {
+            Throwable cause = e instanceof InstantiationFailure failure ? failure.getCause() : e;
+            throw new RuntimeException("Failed to create instance of class: " + clazz.getName(), cause);
+        }
+    }
+
+    private static @NotNull Supplier<?> createInstantiator(@NotNull Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers()))
+            return failing(new InstantiationException(type.getName() + " is not a concrete class"));
+
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return failing(e);
+        }
+
+        try {
+            return metafactoryInstantiator(type);
+        } catch (Throwable ignored) {
+            // Hidden classes cannot always be defined (e.g. restricted module access), use a plain method handle instead
+        }
+
+        try {
+            constructor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor).asType(SUPPLIER_GET);
+            return () -> {
+                try {
+                    return handle.invokeExact();
+                } catch (Throwable t) {
+                    throw new InstantiationFailure(t);
+                }
+            };
+        } catch (IllegalAccessException | RuntimeException e) {
+            return failing(e);
+        }
+    }
+
+    private static @NotNull Supplier<?> metafactoryInstantiator(@NotNull Class<?> type) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        MethodHandle constructor = lookup.findConstructor(type, NO_ARG_CONSTRUCTOR);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "get", SUPPLIER_FACTORY, SUPPLIER_GET, constructor,
+                MethodType.methodType(type));
+        return (Supplier<?>) site.getTarget().invokeExact();
+    }
+
+    private static @NotNull Supplier<?> failing(@NotNull Throwable cause) {
+        return () -> {
+            throw new InstantiationFailure(cause);
+        };
+    }
+
+    /**
+     * Carries the real cause of an instantiation failure through {@link Supplier#get()}.
+     */
+    private static final class InstantiationFailure extends RuntimeException {
+        private InstantiationFailure(@NotNull Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -1,20 +1,23 @@
 package re.neotamia.config.registry;
 
 import org.jetbrains.annotations.NotNull;
+import re.neotamia.config.migration.core.MigrationPlanTable;
 import re.neotamia.config.migration.step.ConfigMigrationStep;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Registry that maps configuration classes to their migration steps.
+ * <p>
+ * The steps of each class are compiled into a {@link MigrationPlanTable} when they are registered,
+ * so that invalid chains are rejected up front and loads only look plans up.
  */
 public final class ConfigMigrationRegistry {
-    private final @NotNull Map<Class<?>, List<ConfigMigrationStep>> stepsByClass = new ConcurrentHashMap<>();
+    private final @NotNull Map<Class<?>, MigrationPlanTable> tablesByClass = new ConcurrentHashMap<>();
 
     /**
      * Creates a new migration registry.
@@ -27,10 +30,16 @@ public final class ConfigMigrationRegistry {
      * @param clazz the configuration class
      * @param steps the steps to register
      * @param <T>   the configuration type
+     * @throws IllegalArgumentException if two steps of the class share a source version or a step does not
+     *                                  advance the version; nothing is registered in that case
      */
-    public <T> void register(@NotNull Class<T> clazz, @NotNull ConfigMigrationStep... steps) {
+    public <T> void register(@NotNull Class<T> clazz, @NotNull ConfigMigrationStep... steps) throws IllegalArgumentException {
         if (steps.length == 0) return;
-        stepsByClass.computeIfAbsent(clazz, ignored -> new ArrayList<>()).addAll(Arrays.asList(steps));
+        tablesByClass.compute(clazz, (ignored, table) -> {
+            List<ConfigMigrationStep> all = new ArrayList<>(table != null ? table.steps() : List.of());
+            all.addAll(Arrays.asList(steps));
+            return MigrationPlanTable.compile(all);
+        });
     }
 
     /**
@@ -40,9 +49,17 @@ public final class ConfigMigrationRegistry {
      * @return an immutable list of steps, possibly empty
      */
     public @NotNull List<ConfigMigrationStep> getSteps(@NotNull Class<?> clazz) {
-        List<ConfigMigrationStep> steps = stepsByClass.get(clazz);
-        if (steps == null || steps.isEmpty()) return Collections.emptyList();
-        return List.copyOf(steps);
+        return getPlanTable(clazz).steps();
+    }
+
+    /**
+     * Returns the compiled plan table of the given configuration class.
+     *
+     * @param clazz the configuration class
+     * @return the plan table, {@link MigrationPlanTable#EMPTY} if no step is registered
+     */
+    public @NotNull MigrationPlanTable getPlanTable(@NotNull Class<?> clazz) {
+        return tablesByClass.getOrDefault(clazz, MigrationPlanTable.EMPTY);
     }
 
     /**
@@ -51,13 +68,13 @@ public final class ConfigMigrationRegistry {
      * @param clazz the configuration class
      */
     public void clear(@NotNull Class<?> clazz) {
-        stepsByClass.remove(clazz);
+        tablesByClass.remove(clazz);
     }
 
     /**
      * Clears all registered migration steps.
      */
     public void clearAll() {
-        stepsByClass.clear();
+        tablesByClass.clear();
     }
 }
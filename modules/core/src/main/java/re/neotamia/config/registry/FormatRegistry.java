@@ -1,12 +1,16 @@
 package re.neotamia.config.registry;
 
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.format.VersionProbe;
 import re.neotamia.nightconfig.core.ConfigFormat;
 import re.neotamia.nightconfig.core.file.FormatDetector;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Registry for supported configuration formats.
@@ -14,6 +18,7 @@ import java.util.Set;
 public class FormatRegistry {
     private final List<ConfigFormat<?>> formats = new ArrayList<>();
     private final Set<String> registeredExtensions = new HashSet<>();
+    private final Map<String, VersionProbe> versionProbes = new ConcurrentHashMap<>();
 
     /**
      * Creates a new format registry.
@@ -35,6 +40,38 @@ public class FormatRegistry {
         }
     }
 
+    /**
+     * Returns whether a format has been registered for the given file extension.
+     *
+     * @param extension the file extension, without the leading dot
+     * @return true if a format is bound to the extension
+     */
+    public boolean hasExtension(String extension) {
+        return registeredExtensions.contains(extension);
+    }
+
+    /**
+     * Registers a version probe for the given file extensions.
+     *
+     * @param probe      the probe reading the version key of files with these extensions
+     * @param extensions file extensions, without the leading dot
+     */
+    public void registerVersionProbe(VersionProbe probe, String... extensions) {
+        for (String extension : extensions) {
+            versionProbes.put(extension, probe);
+        }
+    }
+
+    /**
+     * Returns the version probe registered for the given file extension.
+     *
+     * @param extension the file extension, without the leading dot
+     * @return the probe, or null if none is registered
+     */
+    public @Nullable VersionProbe getVersionProbe(String extension) {
+        return versionProbes.get(extension);
+    }
+
     /**
      * Returns registered formats.
      *
@@ -0,0 +1,183 @@
+package re.neotamia.config.watch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.NTConfig;
+import re.neotamia.config.migration.core.MergeStrategy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a directory and reloads the registered configuration files when they change.
+ * <p>
+ * A single {@link WatchService} thread serves every file of the directory. Events are debounced
+ * per file: bursts of writes (editors, rsync, atomic replace) result in one reload once the file
+ * has been quiet for the debounce delay, and only the file that changed is loaded again.
+ */
+public final class ConfigWatcher implements Closeable {
+    private static final System.Logger LOGGER = System.getLogger(ConfigWatcher.class.getName());
+
+    private final @NotNull NTConfig ntConfig;
+    private final @NotNull Path directory;
+    private final long debounceNanos;
+    private final @NotNull WatchService watchService;
+    private final @NotNull Map<Path, WatchedConfig<?>> watched = new ConcurrentHashMap<>();
+    private final @NotNull Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a watcher for the given directory and starts its watch thread.
+     *
+     * @param ntConfig  the NTConfig instance used to load files
+     * @param directory the directory to watch
+     * @param debounce  how long a file must stay unchanged before it is reloaded
+     * @throws IOException if the directory cannot be watched
+     */
+    public ConfigWatcher(@NotNull NTConfig ntConfig, @NotNull Path directory, @NotNull Duration debounce) throws IOException {
+        this.ntConfig = ntConfig;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.debounceNanos = Math.max(0, debounce.toNanos());
+        this.watchService = this.directory.getFileSystem().newWatchService();
+        this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "NTConfig-Watcher-" + this.directory.getFileName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Returns the watched directory.
+     *
+     * @return the absolute watched directory
+     */
+    public @NotNull Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Loads a file with {@link NTConfig#load(Path, Class)} and keeps it up to date.
+     *
+     * @param fileName the file name, relative to the watched directory
+     * @param type     the configuration class
+     * @param <T>      the configuration type
+     * @return the watched configuration
+     * @throws IllegalArgumentException if the file is not a direct child of the watched directory
+     */
+    public <T> @NotNull WatchedConfig<T> register(@NotNull String fileName, @NotNull Class<T> type) {
+        return register(resolve(fileName), type, path -> ntConfig.load(path, type));
+    }
+
+    /**
+     * Loads a file with {@link NTConfig#migrateAndLoad(Path, Class, Object, MergeStrategy)} and keeps it up to date.
+     *
+     * @param fileName        the file name, relative to the watched directory
+     * @param type            the configuration class
+     * @param currentTemplate the current configuration template with defaults
+     * @param strategy        the merge strategy (null to use default)
+     * @param <T>             the configuration type
+     * @return the watched configuration
+     * @throws IllegalArgumentException if the file is not a direct child of the watched directory
+     */
+    public <T> @NotNull WatchedConfig<T> register(@NotNull String fileName, @NotNull Class<T> type, @NotNull T currentTemplate,
+                                                  @Nullable MergeStrategy strategy) {
+        return register(resolve(fileName), type, path -> ntConfig.migrateAndLoad(path, type, currentTemplate, strategy).config());
+    }
+
+    /**
+     * Stops watching a file.
+     *
+     * @param fileName the file name, relative to the watched directory
+     */
+    public void unregister(@NotNull String fileName) {
+        watched.remove(resolve(fileName).getFileName());
+    }
+
+    /**
+     * Stops the watch thread. Registered configurations keep their last published instance.
+     *
+     * @throws IOException if the watch service cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close();
+        thread.interrupt();
+    }
+
+    private <T> @NotNull WatchedConfig<T> register(@NotNull Path path, @NotNull Class<T> type, @NotNull WatchedConfig.Loader<T> loader) {
+        WatchedConfig<T> config = new WatchedConfig<>(path, type, loader);
+        watched.put(path.getFileName(), config);
+        return config;
+    }
+
+    private @NotNull Path resolve(@NotNull String fileName) {
+        Path path = directory.resolve(fileName).normalize();
+        if (!directory.equals(path.getParent()))
+            throw new IllegalArgumentException("File " + fileName + " is not a direct child of " + directory);
+        return path;
+    }
+
+    private void run() {
+        // Deadline (System.nanoTime) after which each pending file is reloaded
+        Map<Path, Long> pending = new HashMap<>();
+        while (running) {
+            WatchKey key;
+            try {
+                key = pending.isEmpty() ? watchService.take() : watchService.poll(nextDelay(pending), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+
+            if (key != null) {
+                long deadline = System.nanoTime() + debounceNanos;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        for (Path fileName : watched.keySet()) {
+                            pending.put(fileName, deadline);
+                        }
+                    } else if (event.context() instanceof Path fileName && watched.containsKey(fileName)) {
+                        pending.put(fileName, deadline);
+                    }
+                }
+                if (!key.reset()) break;
+            }
+
+            long now = System.nanoTime();
+            Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Path, Long> entry = iterator.next();
+                if (entry.getValue() - now > 0) continue;
+                iterator.remove();
+                WatchedConfig<?> config = watched.get(entry.getKey());
+                if (config == null) continue;
+                try {
+                    config.reloadIfChanged();
+                } catch (RuntimeException e) {
+                    // Keep serving the other files of the directory
+                    LOGGER.log(System.Logger.Level.WARNING, "Failed to reload " + config.path(), e);
+                }
+            }
+        }
+    }
+
+    private static long nextDelay(@NotNull Map<Path, Long> pending) {
+        long now = System.nanoTime();
+        long delay = Long.MAX_VALUE;
+        for (long deadline : pending.values()) {
+            delay = Math.min(delay, deadline - now);
+        }
+        return Math.max(0, delay);
+    }
+}
@@ -0,0 +1,193 @@
+package re.neotamia.config.watch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A configuration instance kept up to date by a {@link ConfigWatcher}.
+ * <p>
+ * Readers call {@link #get()} to obtain the latest successfully loaded instance. A reload
+ * builds a complete new instance and publishes it with a single volatile write, so readers
+ * never observe a partially loaded configuration. A listener that throws is logged and does
+ * not prevent the other listeners from being notified.
+ *
+ * @param <T> the configuration type
+ */
+public final class WatchedConfig<T> {
+    private static final System.Logger LOGGER = System.getLogger(WatchedConfig.class.getName());
+
+    private final @NotNull Path path;
+    private final @NotNull Class<T> type;
+    private final @NotNull Loader<T> loader;
+    private final @NotNull List<Listener<? super T>> listeners = new CopyOnWriteArrayList<>();
+    private volatile @NotNull T current;
+    private @Nullable FileTime lastModified;
+    private long lastSize = -1;
+
+    WatchedConfig(@NotNull Path path, @NotNull Class<T> type, @NotNull Loader<T> loader) {
+        this.path = path;
+        this.type = type;
+        this.loader = loader;
+        BasicFileAttributes attributes = readAttributes();
+        this.current = loader.load(path);
+        rememberAttributes(attributes);
+    }
+
+    /**
+     * Returns the latest successfully loaded configuration.
+     *
+     * @return the current configuration instance; never null
+     */
+    public @NotNull T get() {
+        return current;
+    }
+
+    /**
+     * Returns the watched file.
+     *
+     * @return the configuration file path
+     */
+    public @NotNull Path path() {
+        return path;
+    }
+
+    /**
+     * Returns the configuration class.
+     *
+     * @return the configuration class
+     */
+    public @NotNull Class<T> type() {
+        return type;
+    }
+
+    /**
+     * Adds a listener notified after each reload attempt.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(@NotNull Listener<? super T> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(@NotNull Listener<? super T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Reloads the file if its size or modification time changed since the last load.
+     *
+     * @return true if a new instance was published
+     */
+    boolean reloadIfChanged() {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            attributes = null;
+        }
+        if (attributes != null && attributes.size() == lastSize && attributes.lastModifiedTime().equals(lastModified))
+            return false;
+        T previous = current;
+        T loaded;
+        try {
+            loaded = loader.load(path);
+        } catch (RuntimeException e) {
+            for (Listener<? super T> listener : listeners) {
+                try {
+                    listener.onReloadFailed(path, e);
+                } catch (RuntimeException failure) {
+                    logListenerFailure(listener, failure);
+                }
+            }
+            return false;
+        }
+        current = loaded;
+        rememberAttributes(attributes);
+        for (Listener<? super T> listener : listeners) {
+            try {
+                listener.onReload(previous, loaded);
+            } catch (RuntimeException failure) {
+                logListenerFailure(listener, failure);
+            }
+        }
+        return true;
+    }
+
+    private void logListenerFailure(@NotNull Listener<? super T> listener, @NotNull RuntimeException failure) {
+        LOGGER.log(System.Logger.Level.WARNING,
+                "Reload listener " + listener.getClass().getName() + " failed for " + path, failure);
+    }
+
+    private @Nullable BasicFileAttributes readAttributes() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Remembers the attributes the file has after the published instance was loaded. A loader may
+     * write the file itself (e.g. a migration saving the merged defaults), and that write must not be
+     * seen as a change, or every reload would trigger the next one.
+     *
+     * @param before the attributes read before the load, used if they cannot be read again
+     */
+    private void rememberAttributes(@Nullable BasicFileAttributes before) {
+        BasicFileAttributes after = readAttributes();
+        BasicFileAttributes attributes = after != null ? after : before;
+        lastModified = attributes != null ? attributes.lastModifiedTime() : null;
+        lastSize = attributes != null ? attributes.size() : -1;
+    }
+
+    /**
+     * Callback notified when a watched configuration is reloaded.
+     *
+     * @param <T> the configuration type
+     */
+    public interface Listener<T> {
+        /**
+         * Called after a new instance has been published.
+         *
+         * @param previous the previously published instance
+         * @param current  the newly published instance
+         */
+        void onReload(@NotNull T previous, @NotNull T current);
+
+        /**
+         * Called when a reload fails; the previous instance stays published.
+         *
+         * @param path      the configuration file
+         * @param exception the failure
+         */
+        default void onReloadFailed(@NotNull Path path, @NotNull RuntimeException exception) {
+            // Default implementation does nothing
+        }
+    }
+
+    /**
+     * Loads a configuration instance from a file.
+     *
+     * @param <T> the configuration type
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        @NotNull T load(@NotNull Path path);
+    }
+}
@@ -0,0 +1,132 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.CancellationException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class AsyncLoadTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class AsyncSample {
+        var name: String = "default"
+        var count: Int = 0
+    }
+
+    class NoDefaultConstructor(val name: String)
+
+    private fun newNtConfig(): NTConfig {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        return ntConfig
+    }
+
+    @Test
+    fun `saveAsync and loadAsync round trip`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("async.json")
+        val sample = AsyncSample()
+        sample.name = "async"
+        sample.count = 3
+
+        ntConfig.saveAsync(path, sample).get(10, TimeUnit.SECONDS).close()
+        val loaded = ntConfig.loadAsync(path, AsyncSample::class.java).get(10, TimeUnit.SECONDS)
+
+        assertEquals("async", loaded.name)
+        assertEquals(3, loaded.count)
+    }
+
+    @Test
+    fun `async operations run on the configured executor`() {
+        val ntConfig = newNtConfig()
+        val submitted = AtomicInteger()
+        ntConfig.setAsyncExecutor { task ->
+            submitted.incrementAndGet()
+            task.run()
+        }
+        val path = tempDir.resolve("executor.json")
+        Files.writeString(path, """{"name":"custom"}""")
+
+        val result = ntConfig.migrateAndLoadAsync(path, AsyncSample::class.java, AsyncSample()).get(10, TimeUnit.SECONDS)
+
+        assertEquals("custom", result.config.name)
+        assertEquals(1, submitted.get())
+    }
+
+    @Test
+    fun `loadAsync completes exceptionally on failure`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("failure.json")
+        Files.writeString(path, """{"name":"value"}""")
+
+        assertFailsWith<ExecutionException> {
+            ntConfig.loadAsync(path, NoDefaultConstructor::class.java).get(10, TimeUnit.SECONDS)
+        }
+    }
+
+    @Test
+    fun `loadAll loads every file with its own class`() {
+        val ntConfig = newNtConfig()
+        val first = tempDir.resolve("first.json")
+        val second = tempDir.resolve("second.json")
+        Files.writeString(first, """{"name":"first","count":1}""")
+        Files.writeString(second, """{"name":"second","count":2}""")
+
+        val result = ntConfig.loadAll(mapOf(first to AsyncSample::class.java, second to AsyncSample::class.java), 2)
+
+        assertTrue(result.isSuccessful())
+        assertEquals("first", (result.loaded[first] as AsyncSample).name)
+        assertEquals(2, (result.loaded[second] as AsyncSample).count)
+    }
+
+    @Test
+    fun `loadDirectory reports failures without stopping`() {
+        val ntConfig = newNtConfig()
+        val valid = tempDir.resolve("valid.json")
+        val invalid = tempDir.resolve("invalid.json")
+        Files.writeString(valid, """{"name":"valid"}""")
+        Files.writeString(invalid, """{"count":"not-a-number"}""")
+        Files.writeString(tempDir.resolve("ignored.txt"), "not a config")
+
+        val result = ntConfig.loadDirectory(tempDir, AsyncSample::class.java, 2)
+
+        assertFalse(result.isSuccessful())
+        assertEquals(2, result.size())
+        assertEquals("valid", result.loaded[valid]!!.name)
+        assertTrue(result.failures.containsKey(invalid))
+    }
+
+    @Test
+    fun `loadDirectory reports tasks cancelled by the executor`() {
+        val ntConfig = newNtConfig()
+        val submitted = AtomicInteger()
+        ntConfig.setAsyncExecutor { task ->
+            if (submitted.incrementAndGet() == 2) throw CancellationException("shutting down")
+            task.run()
+        }
+        val first = tempDir.resolve("a.json")
+        val second = tempDir.resolve("b.json")
+        val third = tempDir.resolve("c.json")
+        Files.writeString(first, """{"name":"first"}""")
+        Files.writeString(second, """{"name":"second"}""")
+        Files.writeString(third, """{"name":"third"}""")
+
+        val result = ntConfig.loadDirectory(tempDir, AsyncSample::class.java, 2)
+
+        assertEquals(3, result.size())
+        assertEquals("first", result.loaded[first]!!.name)
+        assertEquals("third", result.loaded[third]!!.name)
+        assertTrue(result.failures[second] is CancellationException)
+    }
+}
@@ -0,0 +1,62 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.io.AtomicFileWriter
+import re.neotamia.config.io.SaveDurability
+import re.neotamia.nightconfig.json.JsonFormat
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.io.path.listDirectoryEntries
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class AtomicSaveTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class AtomicSample {
+        var name: String = "default"
+        var count: Int = 0
+    }
+
+    @Test
+    fun `atomic save round trips for every durability level`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setAtomicSaves(true)
+
+        for (durability in SaveDurability.entries) {
+            ntConfig.setSaveDurability(durability)
+            val path = tempDir.resolve("${durability.name.lowercase()}.json")
+            val sample = AtomicSample()
+            sample.name = durability.name
+            sample.count = durability.ordinal
+
+            ntConfig.save(path, sample).close()
+            val loaded = ntConfig.load(path, AtomicSample::class.java)
+
+            assertEquals(durability.name, loaded.name)
+            assertEquals(durability.ordinal, loaded.count)
+        }
+        assertEquals(SaveDurability.entries.size, tempDir.listDirectoryEntries().size)
+    }
+
+    @Test
+    fun `failed write leaves the target untouched`() {
+        val path = tempDir.resolve("config.json")
+        Files.writeString(path, """{"name":"original"}""")
+
+        assertFailsWith<IOException> {
+            AtomicFileWriter.write(path, SaveDurability.DATA) { out ->
+                out.write("""{"name":""".toByteArray())
+                throw IOException("disk full")
+            }
+        }
+
+        assertEquals("""{"name":"original"}""", Files.readString(path))
+        assertEquals(listOf(path), tempDir.listDirectoryEntries())
+    }
+}
@@ -0,0 +1,160 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.annotation.ConfigVersion
+import re.neotamia.config.backup.BackupManager
+import re.neotamia.config.backup.BackupMode
+import re.neotamia.config.backup.BackupRetention
+import re.neotamia.config.migration.core.ConfigMigrationManager
+import re.neotamia.config.migration.core.MergeStrategy
+import re.neotamia.config.migration.hook.MigrationHook
+import re.neotamia.config.migration.version.MigrationVersion
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.Collections
+import java.util.concurrent.Executors
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotNull
+import kotlin.test.assertTrue
+
+class BackupManagerTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class BackedUpConfig {
+        @ConfigVersion(defaultVersion = "2")
+        var version: Int = 2
+        var name: String = "current"
+    }
+
+    @Test
+    fun `backups created in the same instant never overwrite each other`() {
+        val config = tempDir.resolve("app.json")
+        val manager = BackupManager(tempDir.resolve("backups"))
+
+        val paths = (1..5).map { i ->
+            Files.writeString(config, """{"value":$i}""")
+            requireNotNull(manager.createBackup(config, MigrationVersion.of(1)))
+        }
+
+        assertEquals(5, paths.toSet().size)
+        assertEquals((1..5).map { """{"value":$it}""" }, paths.map { Files.readString(it) })
+        assertEquals(paths, manager.listBackups(config).map { it.backupPath() })
+        assertEquals(paths.last(), manager.latestBackup(config)?.backupPath())
+    }
+
+    @Test
+    fun `retention keeps the newest backups per file and within the size limit`() {
+        val first = tempDir.resolve("first.json")
+        val second = tempDir.resolve("second.json")
+        Files.writeString(first, "0123456789")
+        Files.writeString(second, "0123456789")
+        val manager = BackupManager(tempDir.resolve("backups"), true, BackupMode.COPY,
+            BackupRetention.keepLast(2).withMaxTotalBytes(30))
+
+        val firstBackups = (1..3).map { requireNotNull(manager.createBackup(first)) }
+        assertEquals(firstBackups.drop(1), manager.listBackups(first).map { it.backupPath() })
+        assertFalse(Files.exists(firstBackups[0]))
+
+        val secondBackups = (1..2).map { requireNotNull(manager.createBackup(second)) }
+        assertEquals(3, manager.listBackups().size)
+        assertEquals(listOf(firstBackups[2]), manager.listBackups(first).map { it.backupPath() })
+        assertEquals(secondBackups, manager.listBackups(second).map { it.backupPath() })
+
+        // A new manager reads the same state from the index
+        val reloaded = BackupManager(tempDir.resolve("backups"))
+        assertEquals(manager.listBackups(), reloaded.listBackups())
+    }
+
+    @Test
+    fun `linked backups keep the content of the file before migration`() {
+        val backups = tempDir.resolve("backups")
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setMigrationManager(ConfigMigrationManager(BackupManager(backups).withMode(BackupMode.LINK)))
+
+        val path = tempDir.resolve("linked.json")
+        val original = """{"version":1,"name":"legacy"}"""
+        Files.writeString(path, original)
+
+        val result = ntConfig.migrateAndLoad(path, BackedUpConfig::class.java, BackedUpConfig())
+        assertTrue(result.wasMigrated())
+
+        val backup = assertNotNull(ntConfig.getMigrationManager().getBackupManager().latestBackup(path))
+        assertEquals(MigrationVersion.of(1), backup.version())
+        assertEquals(original, Files.readString(backup.backupPath()))
+        assertEquals(2, ntConfig.load(path, BackedUpConfig::class.java).version)
+    }
+
+    @Test
+    fun `deduplicated backups store identical content once`() {
+        val backups = tempDir.resolve("backups")
+        val manager = BackupManager(backups).withMode(BackupMode.DEDUPLICATE).withCompression(true)
+        val content = """{"name":"fleet","value":42}"""
+        val configs = (1..3).map { i -> tempDir.resolve("node-$i.json").also { Files.writeString(it, content) } }
+
+        val objects = configs.map { requireNotNull(manager.createBackup(it, MigrationVersion.of(1))) }
+        assertEquals(1, objects.toSet().size)
+        Files.walk(backups.resolve("objects")).use { files ->
+            assertEquals(1, files.filter { Files.isRegularFile(it) }.count())
+        }
+
+        Files.writeString(configs[1], """{"name":"changed"}""")
+        val backup = assertNotNull(manager.latestBackup(configs[1]))
+        assertTrue(backup.isDeduplicated())
+        manager.restoreBackup(backup)
+        assertEquals(content, Files.readString(configs[1]))
+    }
+
+    @Test
+    fun `compressed objects are restored from the path returned by createBackup`() {
+        val manager = BackupManager(tempDir.resolve("backups")).withMode(BackupMode.DEDUPLICATE).withCompression(true)
+        val content = """{"name":"compressed"}"""
+        val path = tempDir.resolve("compressed.json")
+        Files.writeString(path, content)
+
+        val backupPath = requireNotNull(manager.createBackup(path, MigrationVersion.of(1)))
+        Files.writeString(path, """{"name":"changed"}""")
+
+        manager.restoreBackup(backupPath, path)
+        assertEquals(content, Files.readString(path))
+    }
+
+    @Test
+    fun `asynchronous backups are written from the content read before migration`() {
+        val backups = tempDir.resolve("backups")
+        val manager = ConfigMigrationManager(BackupManager(backups))
+        val events = Collections.synchronizedList(mutableListOf<String>())
+        manager.addHook(object : MigrationHook {
+            override fun afterBackup(configPath: Path, backupPath: Path, oldVersion: MigrationVersion?, newVersion: MigrationVersion) {
+                events.add("backup")
+            }
+
+            override fun afterMigration(configPath: Path, backupPath: Path, oldVersion: MigrationVersion?, newVersion: MigrationVersion,
+                                        strategy: MergeStrategy) {
+                events.add("migration")
+            }
+        })
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setMigrationManager(manager)
+
+        val path = tempDir.resolve("async.json")
+        val original = """{"version":1,"name":"legacy"}"""
+        Files.writeString(path, original)
+
+        Executors.newVirtualThreadPerTaskExecutor().use { executor ->
+            manager.setBackupExecutor(executor)
+            val result = ntConfig.migrateAndLoad(path, BackedUpConfig::class.java, BackedUpConfig())
+
+            val backupPath = assertNotNull(result.backupPath())
+            assertEquals(original, Files.readString(backupPath))
+            assertEquals(listOf("backup", "migration"), events)
+            assertEquals(2, ntConfig.load(path, BackedUpConfig::class.java).version)
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package re.neotamia.config.test
+
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordingFile
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class ConfigEventsTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class EventConfig {
+        var name: String = "default"
+    }
+
+    @Test
+    fun `load and save emit flight recorder events`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        val path = tempDir.resolve("events.json")
+        val content = """{"name":"recorded"}"""
+        Files.writeString(path, content)
+
+        val dump = tempDir.resolve("events.jfr")
+        Recording().use { recording ->
+            recording.enable("re.neotamia.config.Load")
+            recording.enable("re.neotamia.config.Save")
+            recording.start()
+            val config = ntConfig.load(path, EventConfig::class.java)
+            ntConfig.save(path, config)
+            recording.stop()
+            recording.dump(dump)
+        }
+
+        val events = RecordingFile.readAllEvents(dump).associateBy { it.eventType.name }
+        val load = events.getValue("re.neotamia.config.Load")
+        assertEquals(path.toString(), load.getString("path"))
+        assertEquals("json", load.getString("format"))
+        assertEquals(content.length.toLong(), load.getLong("size"))
+        assertEquals(EventConfig::class.java.name, load.getClass("configClass").name)
+        assertTrue(events.getValue("re.neotamia.config.Save").getBoolean("written"))
+    }
+
+    @Test
+    fun `migration events report the size of the file as read`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        // Mapped reads never keep the content, so the size cannot come from it
+        ntConfig.setMappedReadThreshold(1)
+        val path = tempDir.resolve("migrated.json")
+        Files.writeString(path, "{}")
+
+        val dump = tempDir.resolve("migration.jfr")
+        Recording().use { recording ->
+            recording.enable("re.neotamia.config.Migration")
+            recording.start()
+            val result = ntConfig.migrateAndLoad(path, EventConfig::class.java, EventConfig())
+            assertTrue(result.wasWritten())
+            recording.stop()
+            recording.dump(dump)
+        }
+
+        val migration = RecordingFile.readAllEvents(dump).single { it.eventType.name == "re.neotamia.config.Migration" }
+        assertEquals(2L, migration.getLong("size"))
+        assertTrue(migration.getBoolean("written"))
+    }
+}
@@ -0,0 +1,60 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import re.neotamia.config.NTConfig
+import re.neotamia.config.annotation.ConfigHeader
+import re.neotamia.config.annotation.ConfigVersion
+import re.neotamia.config.metadata.ConfigMetadataCache
+import re.neotamia.config.migration.version.MigrationVersion
+import re.neotamia.nightconfig.core.serde.NamingStrategy
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotSame
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class ConfigMetadataCacheTest {
+    @ConfigHeader("Service settings")
+    class VersionedConfig {
+        @ConfigVersion(defaultVersion = "3")
+        var version: Int = 3
+        var name: String = "service"
+    }
+
+    class PlainConfig {
+        var name: String = "plain"
+    }
+
+    @Test
+    fun `metadata is resolved once per class`() {
+        val cache = ConfigMetadataCache()
+        val metadata = cache.get(VersionedConfig::class.java)
+
+        assertSame(metadata, cache.get(VersionedConfig::class.java))
+        assertEquals("Service settings", metadata.header())
+        assertTrue(metadata.isVersioned)
+        assertEquals(MigrationVersion.of(3), metadata.defaultVersion())
+        assertNotSame(metadata.newInstance<VersionedConfig>(), metadata.newInstance<VersionedConfig>())
+
+        val plain = cache.get(PlainConfig::class.java)
+        assertNull(plain.header())
+        assertFalse(plain.isVersioned)
+        assertNull(plain.defaultVersion())
+    }
+
+    @Test
+    fun `metadata is dropped when the serialization context changes`() {
+        val ntConfig = NTConfig()
+        val cache = ntConfig.metadataCache
+
+        val initial = cache.get(VersionedConfig::class.java)
+        ntConfig.setNamingStrategy(NamingStrategy.KEBAB_CASE)
+        val afterNamingStrategy = cache.get(VersionedConfig::class.java)
+        assertNotSame(initial, afterNamingStrategy)
+
+        // Lazy sections are enabled by registering a type adapter
+        ntConfig.enableLazySections()
+        assertNotSame(afterNamingStrategy, cache.get(VersionedConfig::class.java))
+    }
+}
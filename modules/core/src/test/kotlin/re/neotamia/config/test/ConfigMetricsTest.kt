@@ -0,0 +1,157 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.annotation.ConfigVersion
+import re.neotamia.config.backup.BackupManager
+import re.neotamia.config.metrics.ConfigMetrics
+import re.neotamia.config.migration.core.ConfigMigrationManager
+import re.neotamia.config.migration.hook.MigrationHook
+import re.neotamia.config.migration.step.ConfigMigrationStep
+import re.neotamia.config.migration.version.MigrationVersion
+import re.neotamia.nightconfig.core.Config
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.Collections
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class ConfigMetricsTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class MeteredConfig {
+        @ConfigVersion(defaultVersion = "2")
+        var version: Int = 2
+        var value: Int = 0
+    }
+
+    class DoubleStep : ConfigMigrationStep {
+        override fun fromVersion(): MigrationVersion = MigrationVersion.of(1)
+
+        override fun toVersion(): MigrationVersion = MigrationVersion.of(2)
+
+        override fun migrate(config: Config) {
+            config.set<Int>("value", config.getInt("value") * 2)
+        }
+    }
+
+    class RecordingMetrics : ConfigMetrics {
+        val events: MutableList<String> = Collections.synchronizedList(mutableListOf())
+
+        override fun fileRead(path: Path, bytes: Long, durationNanos: Long) {
+            events.add("read:$bytes")
+        }
+
+        override fun fileParsed(path: Path, durationNanos: Long) {
+            events.add("parsed")
+        }
+
+        override fun fileWritten(path: Path, bytes: Long, durationNanos: Long) {
+            events.add("written")
+        }
+
+        override fun writeSkipped(path: Path) {
+            events.add("write-skipped")
+        }
+
+        override fun deserialized(type: Class<*>, durationNanos: Long) {
+            events.add("deserialized:${type.simpleName}")
+        }
+
+        override fun stepCompleted(path: Path, step: ConfigMigrationStep, durationNanos: Long) {
+            events.add("step:${step.javaClass.simpleName}")
+        }
+
+        override fun backupCreated(path: Path, backupPath: Path?, durationNanos: Long) {
+            events.add("backup")
+        }
+
+        override fun migrationCompleted(path: Path, fromVersion: MigrationVersion, toVersion: MigrationVersion, durationNanos: Long) {
+            events.add("migrated:$fromVersion->$toVersion")
+        }
+
+        override fun migrationFailed(path: Path, failure: Throwable) {
+            events.add("failed")
+        }
+
+        override fun migrationSkipped(path: Path, version: MigrationVersion?) {
+            events.add("skipped")
+        }
+
+        override fun hookFailed(hook: MigrationHook, failure: Exception) {
+            events.add("hook-failed:${failure.message}")
+        }
+    }
+
+    @Test
+    fun `metrics receive read, step, backup and write events`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setMigrationManager(ConfigMigrationManager(BackupManager(tempDir.resolve("backups"))))
+        ntConfig.registerMigrationSteps(MeteredConfig::class.java, DoubleStep())
+        ntConfig.addMigrationHook(object : MigrationHook {
+            override fun onNoMigrationNeeded(configPath: Path, version: MigrationVersion?) {
+                throw IllegalStateException("broken hook")
+            }
+        })
+        val metrics = RecordingMetrics()
+        ntConfig.setMetrics(metrics)
+
+        val path = tempDir.resolve("metered.json")
+        val content = """{"version":1,"value":21}"""
+        Files.writeString(path, content)
+
+        val result = ntConfig.migrateAndLoad(path, MeteredConfig::class.java, MeteredConfig())
+        assertEquals(42, result.config.value)
+        assertEquals(
+            listOf("read:${content.length}", "backup", "step:DoubleStep", "migrated:1->2", "deserialized:MeteredConfig", "written"),
+            metrics.events
+        )
+
+        metrics.events.clear()
+        ntConfig.migrateAndLoad(path, MeteredConfig::class.java, MeteredConfig())
+        assertTrue(metrics.events.containsAll(listOf("skipped", "hook-failed:broken hook")))
+    }
+
+    @Test
+    fun `parsing is reported apart from reading when the content is read first`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setSkipUnchangedWrites(true)
+        val metrics = RecordingMetrics()
+        ntConfig.setMetrics(metrics)
+
+        val path = tempDir.resolve("parsed.json")
+        val content = """{"version":2,"value":7}"""
+        Files.writeString(path, content)
+
+        assertEquals(7, ntConfig.load(path, MeteredConfig::class.java).value)
+        assertEquals(listOf("read:${content.length}", "parsed"), metrics.events.take(2))
+    }
+
+    @Test
+    fun `a migration whose asynchronous backup fails is only reported as failed`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        // A file where the backup directory should be makes every backup fail
+        val backups = Files.writeString(tempDir.resolve("backups"), "")
+        val manager = ConfigMigrationManager(BackupManager(backups))
+        manager.setBackupExecutor { Thread(it).start() }
+        ntConfig.setMigrationManager(manager)
+        ntConfig.registerMigrationSteps(MeteredConfig::class.java, DoubleStep())
+        val metrics = RecordingMetrics()
+        ntConfig.setMetrics(metrics)
+
+        val path = tempDir.resolve("unbacked.json")
+        Files.writeString(path, """{"version":1,"value":21}""")
+
+        assertFailsWith<RuntimeException> { ntConfig.migrateAndLoad(path, MeteredConfig::class.java, MeteredConfig()) }
+        assertEquals(1, metrics.events.count { it == "failed" })
+        assertFalse(metrics.events.any { it.startsWith("migrated:") })
+    }
+}
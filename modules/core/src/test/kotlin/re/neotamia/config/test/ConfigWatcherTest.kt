@@ -0,0 +1,154 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.migration.core.MergeStrategy
+import re.neotamia.config.watch.WatchedConfig
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+
+class ConfigWatcherTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class WatchedSample {
+        var name: String = "initial"
+    }
+
+    private fun newNtConfig(): NTConfig {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        return ntConfig
+    }
+
+    private fun awaitUntil(condition: () -> Boolean) {
+        val deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos()
+        while (!condition() && System.nanoTime() < deadline) {
+            Thread.sleep(20)
+        }
+    }
+
+    @Test
+    fun `reloads a registered file after it changes`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("watched.json")
+        Files.writeString(path, """{"name":"first"}""")
+
+        ntConfig.watch(tempDir, Duration.ofMillis(50)).use { watcher ->
+            val watched = watcher.register("watched.json", WatchedSample::class.java)
+            assertEquals("first", watched.get().name)
+
+            Files.writeString(path, """{"name":"second-value"}""")
+
+            val deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos()
+            while (watched.get().name != "second-value" && System.nanoTime() < deadline) {
+                Thread.sleep(20)
+            }
+            assertEquals("second-value", watched.get().name)
+        }
+    }
+
+    @Test
+    fun `rejects files outside the watched directory`() {
+        val ntConfig = newNtConfig()
+
+        ntConfig.watch(tempDir).use { watcher ->
+            assertFailsWith<IllegalArgumentException> {
+                watcher.register("../outside.json", WatchedSample::class.java)
+            }
+        }
+    }
+
+    @Test
+    fun `migration loader does not reload its own writes`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("override.json")
+        Files.writeString(path, """{"name":"first"}""")
+
+        ntConfig.watch(tempDir, Duration.ofMillis(50)).use { watcher ->
+            val watched = watcher.register("override.json", WatchedSample::class.java, WatchedSample(), MergeStrategy.OVERRIDE)
+            val reloads = AtomicInteger()
+            watched.addListener { _, _ -> reloads.incrementAndGet() }
+
+            Files.writeString(path, """{"name":"external-change"}""")
+
+            awaitUntil { reloads.get() >= 1 }
+            // Each OVERRIDE load writes the file again, which must not trigger another reload
+            Thread.sleep(500)
+            assertEquals(1, reloads.get())
+        }
+    }
+
+    @Test
+    fun `bursts of writes are coalesced into one reload`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("burst.json")
+        Files.writeString(path, """{"name":"first"}""")
+
+        ntConfig.watch(tempDir, Duration.ofMillis(300)).use { watcher ->
+            val watched = watcher.register("burst.json", WatchedSample::class.java)
+            val reloads = AtomicInteger()
+            watched.addListener { _, _ -> reloads.incrementAndGet() }
+
+            for (i in 1..5) {
+                Files.writeString(path, """{"name":"burst-$i"}""")
+                Thread.sleep(20)
+            }
+
+            awaitUntil { watched.get().name == "burst-5" }
+            Thread.sleep(600)
+            assertEquals("burst-5", watched.get().name)
+            assertEquals(1, reloads.get())
+        }
+    }
+
+    @Test
+    fun `a throwing listener does not stop the watcher`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("listener.json")
+        Files.writeString(path, """{"name":"first"}""")
+
+        ntConfig.watch(tempDir, Duration.ofMillis(50)).use { watcher ->
+            val watched = watcher.register("listener.json", WatchedSample::class.java)
+            val failed = AtomicInteger()
+            val reloads = AtomicInteger()
+            watched.addListener(object : WatchedConfig.Listener<WatchedSample> {
+                override fun onReload(previous: WatchedSample, current: WatchedSample) {
+                    throw IllegalStateException("listener failure")
+                }
+
+                override fun onReloadFailed(path: Path, exception: RuntimeException) {
+                    throw IllegalStateException("listener failure")
+                }
+            })
+            watched.addListener(object : WatchedConfig.Listener<WatchedSample> {
+                override fun onReload(previous: WatchedSample, current: WatchedSample) {
+                    reloads.incrementAndGet()
+                }
+
+                override fun onReloadFailed(path: Path, exception: RuntimeException) {
+                    failed.incrementAndGet()
+                }
+            })
+
+            Files.writeString(path, """{"name":"second-value"}""")
+            awaitUntil { reloads.get() >= 1 }
+            assertEquals("second-value", watched.get().name)
+
+            Files.writeString(path, """{"name":""")
+            awaitUntil { failed.get() >= 1 }
+            assertEquals("second-value", watched.get().name)
+
+            Files.writeString(path, """{"name":"third-value"}""")
+            awaitUntil { watched.get().name == "third-value" }
+            assertEquals("third-value", watched.get().name)
+            assertEquals(2, reloads.get())
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package re.neotamia.config.test
+
+import re.neotamia.config.reflect.Instantiators
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNotSame
+import kotlin.test.assertTrue
+
+class InstantiatorsTest {
+    class SimpleConfig {
+        var value: Int = 1
+    }
+
+    class PrivateConstructorConfig private constructor() {
+        var value: Int = 2
+    }
+
+    class NoDefaultConstructorConfig(val value: Int)
+
+    @Test
+    fun `creates a new instance on every call`() {
+        val first = Instantiators.newInstance(SimpleConfig::class.java)
+        val second = Instantiators.newInstance(SimpleConfig::class.java)
+
+        assertEquals(1, first.value)
+        assertNotSame(first, second)
+    }
+
+    @Test
+    fun `creates instances through private constructors`() {
+        val instance = Instantiators.newInstance(PrivateConstructorConfig::class.java)
+
+        assertEquals(2, instance.value)
+    }
+
+    @Test
+    fun `reports classes without a no-arg constructor`() {
+        val exception = assertFailsWith<RuntimeException> {
+            Instantiators.newInstance(NoDefaultConstructorConfig::class.java)
+        }
+
+        assertTrue(exception.message!!.contains(NoDefaultConstructorConfig::class.java.name))
+        assertTrue(exception.cause is NoSuchMethodException)
+    }
+}
@@ -0,0 +1,85 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import re.neotamia.config.migration.core.ConfigTreeMerger
+import re.neotamia.nightconfig.core.Config
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+
+class LayeredConfigTest {
+    private fun defaults(): Config {
+        val config = Config.inMemory()
+        config.set<Any>("name", "default")
+        config.set<Any>("port", 80)
+        config.set<Any>("database.host", "localhost")
+        config.set<Any>("database.pool", 4)
+        return config
+    }
+
+    private fun overrides(): Config {
+        val config = Config.inMemory()
+        config.set<Any>("port", 8080)
+        config.set<Any>("database.host", "db.internal")
+        config.set<Any>("extra", true)
+        return config
+    }
+
+    @Test
+    fun `layer resolves like mergeWithDefaults`() {
+        val merger = ConfigTreeMerger()
+        val layered = merger.layer(defaults(), overrides())
+        val merged = merger.mergeWithDefaults(defaults(), overrides())
+
+        assertEquals(merged.valueMap().keys.toList(), layered.valueMap().keys.toList())
+        assertEquals("default", layered.get<String>("name"))
+        assertEquals(8080, layered.get<Int>("port"))
+        assertEquals("db.internal", layered.get<String>("database.host"))
+        assertEquals(4, layered.get<Int>("database.pool"))
+        assertEquals(true, layered.get<Boolean>("extra"))
+    }
+
+    @Test
+    fun `writes stay in the view`() {
+        val defaults = defaults()
+        val overrides = overrides()
+        val layered = ConfigTreeMerger().layer(defaults, overrides)
+
+        layered.set<Any>("name", "written")
+        layered.set<Any>("database.pool", 16)
+        layered.remove<Any>("extra")
+
+        assertEquals("written", layered.get<String>("name"))
+        assertEquals(16, layered.get<Int>("database.pool"))
+        assertNull(layered.get<Any>("extra"))
+        assertFalse(layered.contains("extra"))
+
+        assertEquals("default", defaults.get<String>("name"))
+        assertEquals(4, defaults.get<Int>("database.pool"))
+        assertNull(overrides.get<Any>("database.pool"))
+        assertEquals(true, overrides.get<Boolean>("extra"))
+    }
+
+    @Test
+    fun `writes through a section found only in defaults leave the defaults unchanged`() {
+        val defaults = defaults()
+        defaults.set<Any>("logging.level", "info")
+        defaults.set<Any>("tags", mutableListOf("a", "b"))
+        val layered = ConfigTreeMerger().layer(defaults, overrides())
+
+        layered.set<Any>("logging.level", "debug")
+        layered.set<Any>("logging.file", "app.log")
+        layered.get<Config>("logging").set<Any>("rotate", true)
+        layered.get<MutableList<String>>("tags").add("c")
+
+        assertEquals("debug", layered.get<String>("logging.level"))
+        assertEquals("app.log", layered.get<String>("logging.file"))
+        assertEquals(true, layered.get<Boolean>("logging.rotate"))
+        assertEquals(listOf("a", "b", "c"), layered.get<List<String>>("tags"))
+
+        assertEquals("info", defaults.get<String>("logging.level"))
+        assertFalse(defaults.contains("logging.file"))
+        assertFalse(defaults.contains("logging.rotate"))
+        assertEquals(listOf("a", "b"), defaults.get<List<String>>("tags"))
+    }
+}
@@ -0,0 +1,74 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.Lazy
+import re.neotamia.config.NTConfig
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class LazySectionTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class Database {
+        var url: String = "jdbc:h2:mem"
+        var poolSize: Int = 4
+    }
+
+    class Routing {
+        var routes: List<String> = emptyList()
+    }
+
+    class ServiceConfig {
+        var name: String = "service"
+        var database: Lazy<Database> = Lazy.of(Database())
+        var routing: Lazy<Routing> = Lazy.of(Routing())
+    }
+
+    private fun newNtConfig(): NTConfig {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.enableLazySections()
+        return ntConfig
+    }
+
+    @Test
+    fun `sections are deserialized on first access`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("lazy.json")
+        Files.writeString(
+            path,
+            """{"name":"api","database":{"url":"jdbc:postgresql://db","pool-size":16},"routing":{"routes":["/a","/b"]}}"""
+        )
+
+        val config = ntConfig.load(path, ServiceConfig::class.java)
+        assertEquals("api", config.name)
+        assertFalse(config.database.isMaterialized)
+        assertFalse(config.routing.isMaterialized)
+
+        assertEquals(16, config.database.get().poolSize)
+        assertTrue(config.database.isMaterialized)
+        assertFalse(config.routing.isMaterialized)
+    }
+
+    @Test
+    fun `untouched sections are saved from their raw form`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("roundtrip.json")
+        ntConfig.save(path, ServiceConfig().apply { routing = Lazy.of(Routing().apply { routes = listOf("/x") }) }).close()
+
+        val loaded = ntConfig.load(path, ServiceConfig::class.java)
+        loaded.database.get().poolSize = 32
+        ntConfig.save(path, loaded).close()
+        assertFalse(loaded.routing.isMaterialized)
+
+        val reloaded = ntConfig.load(path, ServiceConfig::class.java)
+        assertEquals(32, reloaded.database.get().poolSize)
+        assertEquals(listOf("/x"), reloaded.routing.get().routes)
+    }
+}
@@ -0,0 +1,49 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.io.ByteBufferReader
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertEquals
+
+class MappedReadTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class RoutingTable {
+        var name: String = ""
+        var routes: List<String> = emptyList()
+    }
+
+    @Test
+    fun `files above the threshold are parsed from a mapping`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setMappedReadThreshold(1024)
+
+        val path = tempDir.resolve("routes.json")
+        val routes = (0 until 500).joinToString(",") { "\"10.0.$it.0/24\"" }
+        Files.writeString(path, """{"name":"Réseau 🌐","routes":[$routes]}""")
+
+        val table = ntConfig.load(path, RoutingTable::class.java)
+        assertEquals("Réseau 🌐", table.name)
+        assertEquals(500, table.routes.size)
+        assertEquals("10.0.499.0/24", table.routes.last())
+    }
+
+    @Test
+    fun `reader splits surrogate pairs across single character reads`() {
+        val text = "a🌐é"
+        val reader = ByteBufferReader(ByteBuffer.wrap(text.toByteArray()), Charsets.UTF_8)
+        val read = StringBuilder()
+        val buffer = CharArray(1)
+        while (reader.read(buffer, 0, 1) != -1) {
+            read.append(buffer[0])
+        }
+        assertEquals(text, read.toString())
+    }
+}
@@ -0,0 +1,105 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.annotation.ConfigVersion
+import re.neotamia.config.backup.BackupManager
+import re.neotamia.config.migration.core.ConfigMigrationManager
+import re.neotamia.config.migration.step.ConfigMigrationStep
+import re.neotamia.config.migration.version.MigrationVersion
+import re.neotamia.nightconfig.core.Config
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class MigrationDirectoryTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class FleetConfig {
+        @ConfigVersion(defaultVersion = "2")
+        var version: Int = 2
+        var value: Int = 0
+    }
+
+    class FleetStep : ConfigMigrationStep {
+        override fun fromVersion(): MigrationVersion = MigrationVersion.of(1)
+
+        override fun toVersion(): MigrationVersion = MigrationVersion.of(2)
+
+        override fun migrate(config: Config) {
+            config.set<Int>("value", config.getInt("value") * 10)
+        }
+    }
+
+    private fun newNtConfig(): NTConfig {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setMigrationManager(ConfigMigrationManager(BackupManager(tempDir.resolve("backups"))))
+        ntConfig.registerMigrationSteps(FleetConfig::class.java, FleetStep())
+        return ntConfig
+    }
+
+    @Test
+    fun `migrateDirectory migrates every file and reports failures`() {
+        val ntConfig = newNtConfig()
+        val fleet = tempDir.resolve("fleet")
+        Files.createDirectories(fleet)
+        for (i in 1..8) {
+            Files.writeString(fleet.resolve("tenant-$i.json"), """{"version":1,"value":$i}""")
+        }
+        Files.writeString(fleet.resolve("current.json"), """{"version":2,"value":5}""")
+        Files.writeString(fleet.resolve("broken.json"), """{"version":1,"value":"x"}""")
+
+        val report = ntConfig.migrateDirectory(fleet, FleetConfig::class.java, FleetConfig(), 4)
+
+        assertEquals(10, report.size())
+        assertEquals(8, report.migratedCount())
+        assertEquals(1, report.failedCount())
+        assertTrue(report.failures().containsKey(fleet.resolve("broken.json")))
+        val tenant = report.entries().first { it.path() == fleet.resolve("tenant-3.json") }
+        assertTrue(tenant.isSuccessful())
+        assertEquals(MigrationVersion.of(1), tenant.oldVersion())
+        assertEquals(MigrationVersion.of(2), tenant.newVersion())
+        assertTrue(Files.exists(tenant.backupPath()!!))
+        assertEquals(30, ntConfig.load(fleet.resolve("tenant-3.json"), FleetConfig::class.java).value)
+        assertTrue(report.percentile(50) <= report.percentile(99))
+    }
+
+    @Test
+    fun `failed entries carry no versions`() {
+        val ntConfig = newNtConfig()
+        Files.writeString(tempDir.resolve("broken.json"), """{"version":1,"value":"x"}""")
+
+        val report = ntConfig.migrateDirectory(tempDir, FleetConfig::class.java, FleetConfig(), 1)
+
+        val entry = report.entries().single()
+        assertFalse(entry.isSuccessful())
+        assertFalse(entry.migrated())
+        assertFalse(entry.written())
+        assertNull(entry.oldVersion())
+        assertNull(entry.backupPath())
+    }
+
+    @Test
+    fun `files that only gain defaults are written but not migrated`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("missing-value.json")
+        Files.writeString(path, """{"version":2}""")
+
+        val report = ntConfig.migrateDirectory(tempDir, FleetConfig::class.java, FleetConfig(), 1)
+
+        val entry = report.entries().single()
+        assertTrue(entry.isSuccessful())
+        assertFalse(entry.migrated())
+        assertTrue(entry.written())
+        assertEquals(0, report.migratedCount())
+        assertEquals(1, report.writtenCount())
+        assertEquals(MigrationVersion.of(2), entry.newVersion())
+    }
+}
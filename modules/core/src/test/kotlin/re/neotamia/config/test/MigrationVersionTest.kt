@@ -0,0 +1,40 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import re.neotamia.config.migration.version.MigrationVersion
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class MigrationVersionTest {
+    @Test
+    fun `parses integer and semantic versions`() {
+        val integer = MigrationVersion("42")
+        assertEquals(42, integer.major)
+        assertFalse(integer.isSemanticVersion)
+
+        val semantic = MigrationVersion("1.20.3")
+        assertEquals(1, semantic.major)
+        assertEquals(20, semantic.minor)
+        assertEquals(3, semantic.patch)
+        assertTrue(semantic.isSemanticVersion)
+        assertEquals("1.20.3", semantic.version)
+    }
+
+    @Test
+    fun `rejects malformed versions`() {
+        for (invalid in listOf("", ".", "1.", ".1", "1.2", "1..2", "1.2.3.4", "v1", "1.2.x", "-1", " 1", "99999999999")) {
+            assertFailsWith<IllegalArgumentException>(invalid) { MigrationVersion(invalid) }
+        }
+    }
+
+    @Test
+    fun `factories share common instances`() {
+        assertSame(MigrationVersion.of(3), MigrationVersion.of(3))
+        assertSame(MigrationVersion.of("2.1.0"), MigrationVersion.of("2.1.0"))
+        assertEquals(MigrationVersion("7"), MigrationVersion.of(7))
+        assertEquals(MigrationVersion(1, 2, 3).hashCode(), MigrationVersion.of("1.2.3").hashCode())
+    }
+}
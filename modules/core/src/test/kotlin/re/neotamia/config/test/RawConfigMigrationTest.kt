@@ -354,4 +354,23 @@ class RawConfigMigrationTest {
         assertEquals("commented", rawConfig.get<String>("name"))
         assertEquals("Updated name", rawConfig.getComment("name"))
     }
+
+    @Test
+    fun `invalid step chains are rejected at registration`() {
+        val ntConfig = newNtConfig()
+        ntConfig.registerMigrationSteps(ChainConfig::class.java, StepOne())
+
+        assertFailsWith<IllegalArgumentException> {
+            ntConfig.registerMigrationSteps(ChainConfig::class.java, StepOneOnly())
+        }
+        assertEquals(1, ntConfig.getMigrationManager().getMigrationRegistry().getSteps(ChainConfig::class.java).size)
+
+        val path = tempDir.resolve("rejected-step.json")
+        Files.writeString(path, """{"version":2,"value":1}""")
+        ntConfig.registerMigrationSteps(ChainConfig::class.java, StepTwo())
+        val result = ntConfig.migrateAndLoad(path, ChainConfig::class.java, ChainConfig())
+
+        assertEquals(3, result.config.version)
+        assertTrue(result.config.flag)
+    }
 }
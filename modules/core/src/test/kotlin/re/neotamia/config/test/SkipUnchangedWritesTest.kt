@@ -0,0 +1,98 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.io.ContentHashCache
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.BasicFileAttributes
+import java.nio.file.attribute.FileTime
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class SkipUnchangedWritesTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class SkipSample {
+        var name: String = "default"
+        var count: Int = 0
+    }
+
+    private fun newNtConfig(): NTConfig {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setSkipUnchangedWrites(true)
+        return ntConfig
+    }
+
+    @Test
+    fun `saving the same content does not touch the file`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("same.json")
+        val sample = SkipSample()
+
+        assertTrue(ntConfig.saveIfChanged(path, sample).written)
+        val modified = FileTime.fromMillis(0)
+        Files.setLastModifiedTime(path, modified)
+
+        assertFalse(ntConfig.saveIfChanged(path, sample).written)
+        assertEquals(modified, Files.getLastModifiedTime(path))
+
+        sample.count = 1
+        assertTrue(ntConfig.saveIfChanged(path, sample).written)
+        assertEquals(1, ntConfig.load(path, SkipSample::class.java).count)
+    }
+
+    @Test
+    fun `external changes are detected`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("external.json")
+        ntConfig.save(path, SkipSample()).close()
+
+        Files.writeString(path, """{"name":"edited"}""")
+
+        assertTrue(ntConfig.saveIfChanged(path, SkipSample()).written)
+        assertEquals("default", ntConfig.load(path, SkipSample::class.java).name)
+    }
+
+    @Test
+    fun `loadAndUpdate reports whether it wrote the file`() {
+        val ntConfig = newNtConfig()
+        val path = tempDir.resolve("update.json")
+
+        assertTrue(ntConfig.loadAndUpdate(path, SkipSample::class.java, SkipSample()).wasWritten())
+        assertFalse(ntConfig.loadAndUpdate(path, SkipSample::class.java, SkipSample()).wasWritten())
+
+        ntConfig.setSkipUnchangedWrites(false)
+        assertTrue(ntConfig.loadAndUpdate(path, SkipSample::class.java, SkipSample()).wasWritten())
+    }
+
+    @Test
+    fun `unchanged writes are only skipped when enabled`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        val path = tempDir.resolve("default.json")
+
+        assertFalse(ntConfig.isSkipUnchangedWrites)
+        assertTrue(ntConfig.loadAndUpdate(path, SkipSample::class.java, SkipSample()).wasWritten())
+        assertTrue(ntConfig.loadAndUpdate(path, SkipSample::class.java, SkipSample()).wasWritten())
+    }
+
+    @Test
+    fun `a digest is not remembered when the file changed while it was read`() {
+        val cache = ContentHashCache()
+        val path = tempDir.resolve("raced.json")
+        val stale = """{"name":"a"}""".toByteArray()
+        Files.write(path, stale)
+        val attributes = Files.readAttributes(path, BasicFileAttributes::class.java)
+
+        Files.write(path, """{"name":"b"}""".toByteArray())
+        cache.remember(path, attributes, stale)
+
+        assertFalse(cache.matches(path, stale))
+    }
+}
@@ -0,0 +1,117 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.io.ContentHashCache
+import re.neotamia.config.io.SnapshotCache
+import re.neotamia.nightconfig.core.Config
+import re.neotamia.nightconfig.yaml.YamlFormat
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class SnapshotCacheTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class Server {
+        var host: String = "localhost"
+        var port: Int = 0
+    }
+
+    class SnapshotConfig {
+        var name: String = "default"
+        var server: Server = Server()
+        var tags: List<String> = emptyList()
+    }
+
+    private fun newNtConfig(cache: SnapshotCache): NTConfig {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(YamlFormat.defaultInstance(), "yaml", "yml")
+        ntConfig.setSnapshotCache(cache)
+        return ntConfig
+    }
+
+    @Test
+    fun `loads reuse the snapshot until the file changes`() {
+        val cache = SnapshotCache(tempDir.resolve("snapshots"))
+        val path = tempDir.resolve("snapshot.yaml")
+        Files.writeString(path, "name: cached\nserver:\n  host: example.org\n  port: 8080\ntags:\n  - a\n  - b\n")
+
+        val first = newNtConfig(cache).load(path, SnapshotConfig::class.java)
+        assertEquals("cached", first.name)
+
+        val content = Files.readAllBytes(path)
+        val tree = Config.inMemory()
+        assertTrue(cache.load(path, ContentHashCache.fingerprint(path, content), tree))
+        assertEquals(8080, tree.getInt("server.port"))
+        assertEquals(listOf("a", "b"), tree.get<List<String>>("tags"))
+
+        val second = newNtConfig(cache).load(path, SnapshotConfig::class.java)
+        assertEquals("example.org", second.server.host)
+        assertEquals(listOf("a", "b"), second.tags)
+
+        Files.writeString(path, "name: edited\nserver:\n  host: example.org\n  port: 9090\n")
+        assertFalse(cache.load(path, ContentHashCache.fingerprint(path, Files.readAllBytes(path)), Config.inMemory()))
+        val edited = newNtConfig(cache).load(path, SnapshotConfig::class.java)
+        assertEquals("edited", edited.name)
+        assertEquals(9090, edited.server.port)
+    }
+
+    @Test
+    fun `a corrupt snapshot falls back to parsing`() {
+        val cache = SnapshotCache(tempDir.resolve("snapshots"))
+        val path = tempDir.resolve("corrupt.yaml")
+        Files.writeString(path, "name: parsed\n")
+        newNtConfig(cache).load(path, SnapshotConfig::class.java)
+
+        Files.list(cache.directory()).use { snapshots ->
+            snapshots.forEach { Files.write(it, byteArrayOf(1, 2, 3)) }
+        }
+
+        assertEquals("parsed", newNtConfig(cache).load(path, SnapshotConfig::class.java).name)
+    }
+
+    @Test
+    fun `deeply nested trees are neither cached nor loaded`() {
+        val cache = SnapshotCache(tempDir.resolve("snapshots"))
+        val path = tempDir.resolve("deep.yaml")
+        Files.writeString(path, "a: {}\n")
+        val fingerprint = ContentHashCache.fingerprint(path, Files.readAllBytes(path))
+
+        var deep = Config.inMemory()
+        repeat(10_000) {
+            val parent = Config.inMemory()
+            parent.set<Config>("a", deep)
+            deep = parent
+        }
+        assertFalse(cache.store(path, fingerprint, deep))
+
+        // A valid snapshot of {a: {}}, whose root config is then replaced by a deeply nested one
+        val shallow = Config.inMemory()
+        shallow.set<Config>("a", Config.inMemory())
+        assertTrue(cache.store(path, fingerprint, shallow))
+        val snapshot = Files.list(cache.directory()).use { it.toList().single() }
+        val bytes = Files.readAllBytes(snapshot)
+        val corrupt = ByteArrayOutputStream()
+        corrupt.write(bytes, 0, bytes.size - 15)
+        val out = DataOutputStream(corrupt)
+        repeat(100_000) {
+            out.writeInt(1)
+            out.writeInt(1)
+            out.writeByte('a'.code)
+            out.writeBoolean(false)
+            out.writeByte(1)
+        }
+        out.writeInt(0)
+        out.flush()
+        Files.write(snapshot, corrupt.toByteArray())
+
+        assertFalse(cache.load(path, fingerprint, Config.inMemory()))
+    }
+}
@@ -0,0 +1,61 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.io.ChannelWriter
+import re.neotamia.nightconfig.json.JsonFormat
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+import java.nio.channels.Channels
+import java.nio.file.Files
+import java.nio.file.Path
+import kotlin.test.assertContentEquals
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class StreamingSaveTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class StreamedConfig {
+        var name: String = "Zürich 🚆"
+        var stops: List<String> = (0 until 2000).map { "stop-$it" }
+    }
+
+    private fun newNtConfig(streaming: Boolean): NTConfig {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        ntConfig.setStreamingSaves(streaming)
+        return ntConfig
+    }
+
+    @Test
+    fun `streamed saves match buffered saves and skip unchanged content`() {
+        val buffered = tempDir.resolve("buffered.json")
+        val streamed = tempDir.resolve("streamed.json")
+        newNtConfig(false).save(buffered, StreamedConfig())
+
+        val ntConfig = newNtConfig(true)
+        assertTrue(ntConfig.saveIfChanged(streamed, StreamedConfig()).written)
+        assertContentEquals(Files.readAllBytes(buffered), Files.readAllBytes(streamed))
+
+        assertFalse(ntConfig.saveIfChanged(streamed, StreamedConfig()).written)
+        assertTrue(ntConfig.saveIfChanged(streamed, StreamedConfig().apply { name = "Genève" }).written)
+        assertEquals("Genève", ntConfig.load(streamed, StreamedConfig::class.java).name)
+    }
+
+    @Test
+    fun `writer encodes like String getBytes across buffer and write boundaries`() {
+        val text = "ascii é ✓ 🚆 \uD800 end".repeat(50)
+        val bytes = ByteArrayOutputStream()
+        val writer = ChannelWriter(Channels.newChannel(bytes), ByteBuffer.allocate(7), null)
+        text.forEach { writer.write(it.code) }
+        writer.write(text)
+        writer.close()
+
+        assertContentEquals((text + text).toByteArray(), bytes.toByteArray())
+        assertEquals(bytes.size().toLong(), writer.bytesWritten())
+    }
+}
@@ -0,0 +1,89 @@
+package re.neotamia.config.test
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import re.neotamia.config.NTConfig
+import re.neotamia.config.metadata.ConfigMetadataCache
+import re.neotamia.config.migration.core.MergeStrategy
+import re.neotamia.nightconfig.core.Config
+import re.neotamia.nightconfig.json.JsonFormat
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+import kotlin.test.assertEquals
+
+class TemplateDefaultsCacheTest {
+    @TempDir
+    lateinit var tempDir: Path
+
+    class Nested {
+        var host: String = "localhost"
+        var ports: MutableList<Int> = mutableListOf(80)
+    }
+
+    class Defaults {
+        var name: String = "default"
+        var nested: Nested = Nested()
+    }
+
+    @Test
+    fun `changed template values are not served from the cache`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerFormat(JsonFormat.fancyInstance(), "json")
+        val path = tempDir.resolve("defaults.json")
+
+        Files.writeString(path, "{}")
+        val first = ntConfig.migrateAndLoad(path, Defaults::class.java, Defaults(), MergeStrategy.OVERRIDE).config()
+        assertEquals("localhost", first.nested.host)
+
+        val changed = Defaults()
+        changed.nested.ports.add(443)
+        Files.writeString(path, "{}")
+        val second = ntConfig.migrateAndLoad(path, Defaults::class.java, changed, MergeStrategy.OVERRIDE).config()
+        assertEquals(listOf(80, 443), second.nested.ports)
+
+        Files.writeString(path, "{}")
+        val third = ntConfig.migrateAndLoad(path, Defaults::class.java, Defaults(), MergeStrategy.OVERRIDE).config()
+        assertEquals(listOf(80), third.nested.ports)
+    }
+
+    class Counter {
+        var name: String = "default"
+        var count: AtomicInteger = AtomicInteger(1)
+    }
+
+    @Test
+    fun `templates holding identity-based JDK objects are never served from the cache`() {
+        val metadata = ConfigMetadataCache().get(Counter::class.java)
+        val serialize = Function<Counter, Config> { counter ->
+            val tree = Config.inMemory()
+            tree.set<Any>("count", counter.count.get())
+            tree
+        }
+        val template = Counter()
+
+        assertEquals(1, metadata.templateTree(template, serialize).get<Int>("count"))
+        template.count.set(2)
+        assertEquals(2, metadata.templateTree(template, serialize).get<Int>("count"))
+    }
+
+    @Test
+    fun `the cached tree is not modified through the returned tree`() {
+        val metadata = ConfigMetadataCache().get(Defaults::class.java)
+        val serialize = Function<Defaults, Config> {
+            val tree = Config.inMemory()
+            tree.set<Any>("name", "default")
+            tree.set<Any>("nested.host", "localhost")
+            tree
+        }
+
+        val first = metadata.templateTree(Defaults(), serialize)
+        first.set<Any>("name", "changed")
+        first.set<Any>("nested.host", "changed")
+
+        val second = metadata.templateTree(Defaults(), serialize)
+        assertEquals("default", second.get<String>("name"))
+        assertEquals("localhost", second.get<String>("nested.host"))
+    }
+}
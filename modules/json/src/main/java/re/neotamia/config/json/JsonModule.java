@@ -36,5 +36,6 @@ public final class JsonModule {
      */
     public static void register(@NotNull NTConfig config, @NotNull JsonFormat<?> format, @NotNull String... extensions) {
         config.registerFormat(format, extensions);
+        config.registerVersionProbe(new JsonVersionProbe(), extensions);
     }
 }
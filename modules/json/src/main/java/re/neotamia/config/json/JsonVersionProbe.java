@@ -0,0 +1,146 @@
+package re.neotamia.config.json;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.format.ProbeReader;
+import re.neotamia.config.format.VersionProbe;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Version probe for JSON files: walks the members of the root object, skipping nested values
+ * without decoding them, until the version key is found.
+ */
+public final class JsonVersionProbe implements VersionProbe {
+    /**
+     * Creates a JSON version probe.
+     */
+    public JsonVersionProbe() {}
+
+    @Override
+    public @NotNull Result probe(@NotNull Reader reader, @NotNull String key) throws IOException {
+        ProbeReader in = new ProbeReader(reader);
+        in.skipWhitespace();
+        if (in.read() != '{') return Result.unknown();
+        in.skipWhitespace();
+        if (in.peek() == '}') return Result.absent();
+
+        while (true) {
+            in.skipWhitespace();
+            if (in.read() != '"') return Result.unknown();
+            String name = readString(in);
+            in.skipWhitespace();
+            if (name == null || in.read() != ':') return Result.unknown();
+            in.skipWhitespace();
+
+            if (name.equals(key)) return readScalar(in);
+            if (!skipValue(in)) return Result.unknown();
+
+            in.skipWhitespace();
+            int c = in.read();
+            if (c == '}') return Result.absent();
+            if (c != ',') return Result.unknown();
+        }
+    }
+
+    private static @NotNull Result readScalar(@NotNull ProbeReader in) throws IOException {
+        int c = in.peek();
+        if (c == '"') {
+            in.read();
+            String value = readString(in);
+            return value != null ? Result.found(value) : Result.unknown();
+        }
+        if (c != '-' && (c < '0' || c > '9')) return Result.unknown();
+
+        StringBuilder number = new StringBuilder();
+        while ((c = in.peek()) == '-' || c >= '0' && c <= '9') {
+            number.append((char) in.read());
+        }
+        // Fractions and exponents are not valid versions, leave them to the full parse
+        if (c == '.' || c == 'e' || c == 'E') return Result.unknown();
+        try {
+            return Result.found(Long.parseLong(number.toString()));
+        } catch (NumberFormatException e) {
+            return Result.unknown();
+        }
+    }
+
+    /**
+     * Reads a string whose opening quote was consumed.
+     */
+    private static @Nullable String readString(@NotNull ProbeReader in) throws IOException {
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = in.read();
+            switch (c) {
+                case ProbeReader.EOF, '\n' -> {
+                    return null;
+                }
+                case '"' -> {
+                    return value.toString();
+                }
+                case '\\' -> {
+                    int escaped = in.read();
+                    switch (escaped) {
+                        case '"', '\\', '/' -> value.append((char) escaped);
+                        case 'b' -> value.append('\b');
+                        case 'f' -> value.append('\f');
+                        case 'n' -> value.append('\n');
+                        case 'r' -> value.append('\r');
+                        case 't' -> value.append('\t');
+                        case 'u' -> {
+                            int code = 0;
+                            for (int i = 0; i < 4; i++) {
+                                int digit = Character.digit(in.read(), 16);
+                                if (digit < 0) return null;
+                                code = code * 16 + digit;
+                            }
+                            value.append((char) code);
+                        }
+                        default -> {
+                            return null;
+                        }
+                    }
+                }
+                default -> value.append((char) c);
+            }
+        }
+    }
+
+    private static boolean skipValue(@NotNull ProbeReader in) throws IOException {
+        int c = in.peek();
+        if (c == '"') {
+            in.read();
+            return readString(in) != null;
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = in.read();
+                switch (c) {
+                    case ProbeReader.EOF -> {
+                        return false;
+                    }
+                    case '{', '[' -> depth++;
+                    case '}', ']' -> depth--;
+                    case '"' -> {
+                        if (readString(in) == null) return false;
+                    }
+                    default -> {
+                        // Scalars inside nested values are skipped character by character
+                    }
+                }
+            } while (depth > 0);
+            return true;
+        }
+
+        // Numbers and literals
+        boolean consumed = false;
+        while ((c = in.peek()) != ProbeReader.EOF && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+            in.read();
+            consumed = true;
+        }
+        return consumed;
+    }
+}
@@ -3,10 +3,14 @@ package re.neotamia.config.json.test
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.io.TempDir
 import re.neotamia.config.NTConfig
+import re.neotamia.config.annotation.ConfigVersion
+import re.neotamia.config.migration.version.MigrationVersion
 import re.neotamia.config.format.FormatModules
 import re.neotamia.config.json.registerJson
 import java.nio.file.Files
 import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
 import kotlin.test.assertTrue
 
 class JsonModuleTest {
@@ -17,6 +21,12 @@ class JsonModuleTest {
         var name: String = "value"
     }
 
+    class VersionedConfig {
+        @ConfigVersion(defaultVersion = "3")
+        var configVersion: Int = 3
+        var name: String = "value"
+    }
+
     @Test
     fun `register saves json file`() {
         val ntConfig = NTConfig()
@@ -42,4 +52,26 @@ class JsonModuleTest {
         assertTrue(Files.exists(path))
         assertTrue(Files.readString(path).contains("name"))
     }
+
+    @Test
+    fun `version probe reads the top-level version key`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerJson()
+
+        val path = tempDir.resolve("versioned.json")
+        Files.writeString(path, """
+            {
+              "name": "value",
+              "nested": { "config-version": 1, "list": [1, "}", 2] },
+              "config-version": 2,
+              "tail": "x"
+            }
+        """.trimIndent())
+
+        assertEquals(MigrationVersion.of(2), ntConfig.probeVersion(path, VersionedConfig::class.java))
+        assertFalse(ntConfig.isUpToDate(path, VersionedConfig::class.java, VersionedConfig()))
+
+        ntConfig.save(path, VersionedConfig()).close()
+        assertTrue(ntConfig.isUpToDate(path, VersionedConfig::class.java, VersionedConfig()))
+    }
 }
@@ -37,5 +37,6 @@ public final class TomlModule {
      */
     public static void register(@NotNull NTConfig config, @NotNull TomlFormat format, @NotNull String... extensions) {
         config.registerFormat(format, extensions);
+        config.registerVersionProbe(new TomlVersionProbe(), extensions);
     }
 }
@@ -0,0 +1,195 @@
+package re.neotamia.config.toml;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.format.ProbeReader;
+import re.neotamia.config.format.VersionProbe;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Version probe for TOML files: reads the key/value pairs that precede the first table header,
+ * skipping values without decoding them, until the version key is found.
+ */
+public final class TomlVersionProbe implements VersionProbe {
+    /**
+     * Creates a TOML version probe.
+     */
+    public TomlVersionProbe() {}
+
+    @Override
+    public @NotNull Result probe(@NotNull Reader reader, @NotNull String key) throws IOException {
+        ProbeReader in = new ProbeReader(reader);
+        while (true) {
+            in.skipBlanks();
+            int c = in.peek();
+            switch (c) {
+                case ProbeReader.EOF, '[' -> {
+                    // Keys after the first table header belong to that table
+                    return Result.absent();
+                }
+                case '#', '\r', '\n' -> {
+                    in.skipLine();
+                    continue;
+                }
+                default -> {
+                    // Key/value pair
+                }
+            }
+
+            String name = readKey(in);
+            in.skipBlanks();
+            if (name == null || in.read() != '=') return Result.unknown();
+            in.skipBlanks();
+
+            if (name.equals(key)) return readScalar(in);
+            if (!skipValue(in)) return Result.unknown();
+            in.skipLine();
+        }
+    }
+
+    /**
+     * Reads a key. Dotted keys are returned with an unquoted dot so that they never match a plain key.
+     */
+    private static @Nullable String readKey(@NotNull ProbeReader in) throws IOException {
+        StringBuilder key = new StringBuilder();
+        boolean dotted = false;
+        while (true) {
+            int c = in.peek();
+            if (c == '"' || c == '\'') {
+                in.read();
+                String part = readString(in, (char) c);
+                if (part == null) return null;
+                key.append(part);
+            } else if (isBareKeyChar(c)) {
+                while (isBareKeyChar(in.peek())) key.append((char) in.read());
+            } else {
+                return null;
+            }
+            in.skipBlanks();
+            if (in.peek() != '.') break;
+            in.read();
+            in.skipBlanks();
+            dotted = true;
+        }
+        return dotted ? key.insert(0, '.').toString() : key.toString();
+    }
+
+    private static boolean isBareKeyChar(int c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-';
+    }
+
+    private static @NotNull Result readScalar(@NotNull ProbeReader in) throws IOException {
+        int c = in.peek();
+        if (c == '"' || c == '\'') {
+            in.read();
+            if (in.peek() == c) return Result.unknown(); // Empty or multi-line string
+            String value = readString(in, (char) c);
+            return value != null ? Result.found(value) : Result.unknown();
+        }
+
+        StringBuilder number = new StringBuilder();
+        while ((c = in.peek()) == '+' || c == '-' || c == '_' || c >= '0' && c <= '9') {
+            in.read();
+            if (c != '_') number.append((char) c);
+        }
+        if (c != ProbeReader.EOF && c != ' ' && c != '\t' && c != '#' && c != '\r' && c != '\n') return Result.unknown();
+        try {
+            return Result.found(Long.parseLong(number.toString()));
+        } catch (NumberFormatException e) {
+            return Result.unknown();
+        }
+    }
+
+    /**
+     * Reads a single-line string whose opening quote was consumed.
+     */
+    private static @Nullable String readString(@NotNull ProbeReader in, char quote) throws IOException {
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = in.read();
+            if (c == ProbeReader.EOF || c == '\n') return null;
+            if (c == quote) return value.toString();
+            if (c == '\\' && quote == '"') {
+                int escaped = in.read();
+                switch (escaped) {
+                    case '"', '\\' -> value.append((char) escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    default -> {
+                        // Unicode escapes never appear in version keys or values
+                        return null;
+                    }
+                }
+            } else {
+                value.append((char) c);
+            }
+        }
+    }
+
+    private static boolean skipValue(@NotNull ProbeReader in) throws IOException {
+        int c = in.peek();
+        if (c == '"' || c == '\'')
+            return skipString(in);
+        if (c == '[' || c == '{') {
+            // Arrays may span several lines and contain comments; inline tables are single-line
+            int depth = 0;
+            do {
+                c = in.peek();
+                switch (c) {
+                    case ProbeReader.EOF -> {
+                        return false;
+                    }
+                    case '"', '\'' -> {
+                        if (!skipString(in)) return false;
+                    }
+                    case '#' -> in.skipLine();
+                    case '[', '{' -> {
+                        in.read();
+                        depth++;
+                    }
+                    case ']', '}' -> {
+                        in.read();
+                        depth--;
+                    }
+                    default -> in.read();
+                }
+            } while (depth > 0);
+            return true;
+        }
+        // Numbers, booleans and dates end with the line
+        return c != ProbeReader.EOF && c != '\r' && c != '\n';
+    }
+
+    /**
+     * Skips a basic, literal or multi-line string starting at the opening quote.
+     */
+    private static boolean skipString(@NotNull ProbeReader in) throws IOException {
+        char quote = (char) in.read();
+        if (in.peek() != quote)
+            return readString(in, quote) != null;
+        in.read();
+        if (in.peek() != quote)
+            return true; // Empty string
+        in.read();
+
+        int closing = 0;
+        while (closing < 3) {
+            int c = in.read();
+            if (c == ProbeReader.EOF) return false;
+            if (c == quote) {
+                closing++;
+            } else {
+                closing = 0;
+                if (c == '\\' && quote == '"') in.read();
+            }
+        }
+        // Up to two quotes may directly precede the closing delimiter
+        while (in.peek() == quote) in.read();
+        return true;
+    }
+}
@@ -3,9 +3,13 @@ package re.neotamia.config.toml.test
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.io.TempDir
 import re.neotamia.config.NTConfig
+import re.neotamia.config.annotation.ConfigVersion
+import re.neotamia.config.migration.version.MigrationVersion
 import re.neotamia.config.toml.registerToml
 import java.nio.file.Files
 import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
 import kotlin.test.assertTrue
 
 class TomlModuleTest {
@@ -16,6 +20,12 @@ class TomlModuleTest {
         var name: String = "value"
     }
 
+    class VersionedConfig {
+        @ConfigVersion(defaultVersion = "3")
+        var configVersion: Int = 3
+        var name: String = "value"
+    }
+
     @Test
     fun `register saves toml file`() {
         val ntConfig = NTConfig()
@@ -28,4 +38,29 @@ class TomlModuleTest {
         assertTrue(Files.exists(path))
         assertTrue(Files.readString(path).contains("name"))
     }
+
+    @Test
+    fun `version probe reads the top-level version key`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerToml()
+
+        val path = tempDir.resolve("versioned.toml")
+        Files.writeString(path, """
+            name = "value"
+            list = [
+              1, # ]
+              2,
+            ]
+            config-version = 2
+
+            [nested]
+            config-version = 1
+        """.trimIndent())
+
+        assertEquals(MigrationVersion.of(2), ntConfig.probeVersion(path, VersionedConfig::class.java))
+        assertFalse(ntConfig.isUpToDate(path, VersionedConfig::class.java, VersionedConfig()))
+
+        ntConfig.save(path, VersionedConfig()).close()
+        assertTrue(ntConfig.isUpToDate(path, VersionedConfig::class.java, VersionedConfig()))
+    }
 }
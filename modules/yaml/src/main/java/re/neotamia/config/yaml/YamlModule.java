@@ -37,5 +37,6 @@ public final class YamlModule {
      */
     public static void register(@NotNull NTConfig config, @NotNull YamlFormat format, @NotNull String... extensions) {
         config.registerFormat(format, extensions);
+        config.registerVersionProbe(new YamlVersionProbe(), extensions);
     }
 }
@@ -0,0 +1,159 @@
+package re.neotamia.config.yaml;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import re.neotamia.config.format.ProbeReader;
+import re.neotamia.config.format.VersionProbe;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Version probe for YAML files: reads the lines of the first document and looks at the keys of the
+ * root block mapping, which start at column zero. Indented lines belong to nested values and are
+ * skipped. Anything beyond simple block mappings (flow collections, anchors, tags, complex keys)
+ * is left to the full parse.
+ */
+public final class YamlVersionProbe implements VersionProbe {
+    /**
+     * Creates a YAML version probe.
+     */
+    public YamlVersionProbe() {}
+
+    @Override
+    public @NotNull Result probe(@NotNull Reader reader, @NotNull String key) throws IOException {
+        ProbeReader in = new ProbeReader(reader);
+        boolean inDocument = false;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isEmpty()) continue;
+            char first = line.charAt(0);
+            if (first == ' ' || first == '\t' || first == '#') continue;
+            if (first == '%' && !inDocument) continue; // Directive
+
+            if (isMarker(line, "---")) {
+                if (inDocument) return Result.absent();
+                if (!isComment(line, 3)) return Result.unknown();
+                inDocument = true;
+                continue;
+            }
+            if (isMarker(line, "...")) return Result.absent();
+            inDocument = true;
+
+            int colon;
+            String name;
+            if (first == '"' || first == '\'') {
+                int end = closingQuote(line, 0);
+                if (end < 0) return Result.unknown();
+                name = unquote(line, 0, end);
+                colon = end + 1;
+                if (colon >= line.length() || line.charAt(colon) != ':') return Result.unknown();
+            } else {
+                if ("-?[]{}&*!|>@`".indexOf(first) >= 0) return Result.unknown();
+                colon = mappingColon(line);
+                if (colon < 0) return Result.unknown();
+                name = line.substring(0, colon).strip();
+            }
+            if (name == null) return Result.unknown();
+            if (!name.equals(key)) continue;
+
+            return readScalar(line, colon + 1);
+        }
+        return Result.absent();
+    }
+
+    private static @NotNull Result readScalar(@NotNull String line, int start) {
+        String value = line.substring(start).strip();
+        if (value.isEmpty()) return Result.unknown(); // Value on the following lines
+
+        char first = value.charAt(0);
+        if (first == '"' || first == '\'') {
+            int end = closingQuote(value, 0);
+            if (end < 0 || !isComment(value, end + 1)) return Result.unknown();
+            String unquoted = unquote(value, 0, end);
+            return unquoted != null ? Result.found(unquoted) : Result.unknown();
+        }
+
+        int comment = value.indexOf(" #");
+        if (comment >= 0) value = value.substring(0, comment).strip();
+
+        boolean digits = true;
+        int dots = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.') dots++;
+            else if (c < '0' || c > '9') digits = false;
+        }
+        if (digits && dots == 0) {
+            try {
+                return Result.found(Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                return Result.unknown();
+            }
+        }
+        // Plain scalars such as 1.2.0 are strings, while 1.2 is a float; other scalars are left to the full parse
+        return digits && dots == 2 ? Result.found(value) : Result.unknown();
+    }
+
+    /**
+     * Returns the index of the colon separating a plain key from its value, or -1.
+     */
+    private static int mappingColon(@NotNull String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '#' && i > 0 && line.charAt(i - 1) == ' ') return -1;
+            if (c == ':' && (i + 1 == line.length() || line.charAt(i + 1) == ' ' || line.charAt(i + 1) == '\t')) return i;
+        }
+        return -1;
+    }
+
+    private static int closingQuote(@NotNull String text, int open) {
+        char quote = text.charAt(open);
+        for (int i = open + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote == '"' && c == '\\') {
+                i++;
+            } else if (c == quote) {
+                if (quote == '\'' && i + 1 < text.length() && text.charAt(i + 1) == '\'') i++;
+                else return i;
+            }
+        }
+        return -1;
+    }
+
+    private static @Nullable String unquote(@NotNull String text, int open, int close) {
+        char quote = text.charAt(open);
+        String content = text.substring(open + 1, close);
+        if (quote == '\'') return content.replace("''", "'");
+        if (content.indexOf('\\') < 0) return content;
+
+        StringBuilder value = new StringBuilder(content.length());
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = content.charAt(++i);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'n' -> value.append('\n');
+                case 't' -> value.append('\t');
+                default -> {
+                    // Other escapes never appear in version keys or values
+                    return null;
+                }
+            }
+        }
+        return value.toString();
+    }
+
+    private static boolean isMarker(@NotNull String line, @NotNull String marker) {
+        return line.startsWith(marker) && (line.length() == 3 || line.charAt(3) == ' ' || line.charAt(3) == '\t');
+    }
+
+    private static boolean isComment(@NotNull String text, int from) {
+        String rest = text.substring(from).strip();
+        return rest.isEmpty() || rest.startsWith("#");
+    }
+}
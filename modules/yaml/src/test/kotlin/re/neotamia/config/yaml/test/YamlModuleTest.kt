@@ -3,9 +3,13 @@ package re.neotamia.config.yaml.test
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.io.TempDir
 import re.neotamia.config.NTConfig
+import re.neotamia.config.annotation.ConfigVersion
+import re.neotamia.config.migration.version.MigrationVersion
 import re.neotamia.config.yaml.registerYaml
 import java.nio.file.Files
 import java.nio.file.Path
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
 import kotlin.test.assertTrue
 
 class YamlModuleTest {
@@ -16,6 +20,12 @@ class YamlModuleTest {
         var name: String = "value"
     }
 
+    class VersionedConfig {
+        @ConfigVersion(defaultVersion = "3")
+        var configVersion: Int = 3
+        var name: String = "value"
+    }
+
     @Test
     fun `register saves yaml file`() {
         val ntConfig = NTConfig()
@@ -28,4 +38,25 @@ class YamlModuleTest {
         assertTrue(Files.exists(path))
         assertTrue(Files.readString(path).contains("name"))
     }
+
+    @Test
+    fun `version probe reads the top-level version key`() {
+        val ntConfig = NTConfig()
+        ntConfig.registerYaml()
+
+        val path = tempDir.resolve("versioned.yaml")
+        Files.writeString(path, """
+            # header
+            name: value
+            nested:
+              config-version: 1
+            config-version: 2 # previous
+        """.trimIndent())
+
+        assertEquals(MigrationVersion.of(2), ntConfig.probeVersion(path, VersionedConfig::class.java))
+        assertFalse(ntConfig.isUpToDate(path, VersionedConfig::class.java, VersionedConfig()))
+
+        ntConfig.save(path, VersionedConfig()).close()
+        assertTrue(ntConfig.isUpToDate(path, VersionedConfig::class.java, VersionedConfig()))
+    }
 }